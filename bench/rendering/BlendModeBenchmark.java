@@ -0,0 +1,70 @@
+package rendering;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class BlendModeBenchmark {
+    @Param({"OVER_PRE", "OVER_STRAIGHT", "SUBTRACT"})
+    public String mode;
+
+    @Param({"PLANAR", "PACKED"})
+    public String factory;
+
+    @Param({"256"})
+    public int size;
+
+    private BlendMode blendMode;
+    private int[]     fgPixels;
+    private int[]     bgPixels;
+    private Raster    fg;
+    private Raster    bg;
+
+    @Setup
+    public void setup() {
+        blendMode = switch (mode) {
+            case "OVER_PRE" -> BlendMode.OVER_PRE;
+            case "OVER_STRAIGHT" -> BlendMode.OVER_STRAIGHT;
+            case "SUBTRACT" -> BlendMode.SUBTRACT;
+            default -> throw new IllegalArgumentException(mode);
+        };
+        var random = new Random(1);
+        fgPixels = random.ints(size * size).toArray();
+        bgPixels = random.ints(size * size).toArray();
+        var rasterFactory = factory.equals("PACKED") ? RasterFactory.PACKED : RasterFactory.PLANAR;
+        fg = rasterFactory.createArgb(size, size, (i, _, _) -> fgPixels[i]);
+        bg = rasterFactory.createArgb(size, size, (i, _, _) -> bgPixels[i]);
+    }
+
+    // one applyArgb call per pixel, the way samplers and drawLine blend
+    @Benchmark
+    public int perPixel() {
+        int acc = 0;
+        for (int i = 0; i < fgPixels.length; ++i) {
+            acc ^= blendMode.applyArgb(fgPixels[i], bgPixels[i]);
+        }
+        return acc;
+    }
+
+    @Benchmark
+    public Raster perRaster() {
+        return blendMode.apply(fg, bg);
+    }
+}
@@ -0,0 +1,60 @@
+package rendering;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class PixelRasterBenchmark {
+    @Param({"16", "256", "1024"})
+    public int size;
+
+    private PixelRaster raster;
+
+    @Setup
+    public void setup() {
+        var pixels = new Random(1).ints(size * size).toArray();
+        raster = PixelRaster.ofArgb(size, size, (i, _, _) -> pixels[i]);
+    }
+
+    @Benchmark
+    public PixelRaster scaleUp() {
+        return raster.scale(size * 2, size * 2);
+    }
+
+    @Benchmark
+    public PixelRaster scaleDown() {
+        return raster.scale(size / 2, size / 2);
+    }
+
+    @Benchmark
+    public int[] rgb() {
+        return raster.rgb();
+    }
+
+    @Benchmark
+    public int[] argb() {
+        return raster.argb();
+    }
+
+    @Benchmark
+    public PixelRaster cloneRaster() {
+        return raster.clone();
+    }
+}
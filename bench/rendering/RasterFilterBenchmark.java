@@ -0,0 +1,43 @@
+package rendering;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class RasterFilterBenchmark {
+    // glyph sized, then icon and canvas sized
+    @Param({"16", "64", "256"})
+    public int size;
+
+    private RasterFilter antiAlias;
+    private Raster       raster;
+
+    @Setup
+    public void setup() {
+        var pixels = new Random(1).ints(size * size).toArray();
+        antiAlias = RasterFilter.antiAlias();
+        raster = PixelRaster.ofArgb(size, size, (i, _, _) -> pixels[i]);
+    }
+
+    @Benchmark
+    public Raster antiAlias() {
+        return antiAlias.apply(raster);
+    }
+}
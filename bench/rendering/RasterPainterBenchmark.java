@@ -0,0 +1,65 @@
+package rendering;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class RasterPainterBenchmark {
+    private static final int DISPLAY = 800;
+
+    @Param({"PLANAR", "PACKED"})
+    public String factory;
+
+    @Param({"16", "256"})
+    public int size;
+
+    private Painter painter;
+    private Raster  image;
+
+    @Setup
+    public void setup() {
+        var rasterFactory = factory.equals("PACKED") ? RasterFactory.PACKED : RasterFactory.PLANAR;
+        var pixels = new Random(1).ints(size * size).toArray();
+        painter = new RasterPainter(rasterFactory.create(DISPLAY, DISPLAY));
+        image = rasterFactory.createArgb(size, size, (i, _, _) -> pixels[i]);
+    }
+
+    @Benchmark
+    public void drawImg() {
+        painter.drawImg(DISPLAY / 2 - size / 2, DISPLAY / 2 - size / 2, image, BlendMode.OVER_PRE);
+    }
+
+    // straight copies, no blending
+    @Benchmark
+    public void drawImgNormal() {
+        painter.drawImg(DISPLAY / 2 - size / 2, DISPLAY / 2 - size / 2, image, BlendMode.NORMAL);
+    }
+
+    @Benchmark
+    public void drawImgColor() {
+        painter.drawImg(0, 0, size, size, Color.NamedColor.BLACK.withAlpha(0.8f), BlendMode.OVER_PRE);
+    }
+
+    // a diagonal across the image's footprint
+    @Benchmark
+    public void drawLine() {
+        painter.drawLine(0, 0, size - 1, size - 1, (_, _, _) -> Color.NamedColor.WHITE, BlendMode.OVER_PRE);
+    }
+}
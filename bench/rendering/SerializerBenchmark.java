@@ -0,0 +1,66 @@
+package rendering;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+    @Param({"ARGB", "RGB"})
+    public String format;
+
+    @Param({"PLANAR", "PACKED"})
+    public String factory;
+
+    // icon, texture and display sized
+    @Param({"16", "256", "800"})
+    public int size;
+
+    private RasterSerializer serializer;
+    private Raster           raster;
+    private byte[]           bytes;
+
+    @Setup
+    public void setup() {
+        var rasterFactory = factory.equals("PACKED") ? RasterFactory.PACKED : RasterFactory.PLANAR;
+        serializer = switch (format) {
+            case "ARGB" -> ArgbSerializer.of(rasterFactory);
+            case "RGB" -> RgbSerializer.of(rasterFactory);
+            default -> throw new IllegalArgumentException(format);
+        };
+        var pixels = new Random(1).ints(size * size).map(argb -> argb | 0xff000000).toArray();
+        raster = rasterFactory.createArgb(size, size, (i, _, _) -> pixels[i]);
+        bytes = serializer.serialize(raster).getSuccess();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(raster).getSuccess();
+    }
+
+    @Benchmark
+    public Raster deserialize() {
+        return serializer.deserialize(bytes).getSuccess();
+    }
+
+    @Benchmark
+    public Raster roundTrip() {
+        return serializer.deserialize(serializer.serialize(raster).getSuccess()).getSuccess();
+    }
+}
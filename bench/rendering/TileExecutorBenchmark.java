@@ -0,0 +1,51 @@
+package rendering;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// prints how whole-raster blending and filtering scale from 1 to all available cores
+public class TileExecutorBenchmark {
+    private static final int SIZE       = 2048;
+    private static final int WARMUP     = 10;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) {
+        var fg = RasterFactory.PACKED.createArgb(SIZE, SIZE, (i, _, _) -> i * 0x01020304);
+        var bg = RasterFactory.PACKED.createArgb(SIZE, SIZE, (i, _, _) -> ~i * 0x04030201);
+        var filter = PixelFilter.opacity(0.5);
+        int cores = Runtime.getRuntime().availableProcessors();
+        double blendBase = 0;
+        double filterBase = 0;
+        System.out.printf("%dx%d packed raster, %d cores%n", SIZE, SIZE, cores);
+        System.out.printf("%7s %12s %8s %12s %8s%n", "threads", "blend ms", "speedup", "filter ms", "speedup");
+        for (int threads : threadCounts(cores)) {
+            var pool = new ForkJoinPool(threads);
+            var executor = TileExecutor.builder().pool(pool).build();
+            double blendMs = time(() -> BlendMode.OVER_PRE.apply(fg, bg, executor));
+            double filterMs = time(() -> filter.asRasterFilter(executor).apply(fg));
+            if (threads == 1) {
+                blendBase = blendMs;
+                filterBase = filterMs;
+            }
+            System.out.printf("%7d %12.2f %7.2fx %12.2f %7.2fx%n",
+                    threads, blendMs, blendBase / blendMs, filterMs, filterBase / filterMs);
+            pool.shutdown();
+        }
+    }
+
+    // powers of two, then all cores
+    private static int[] threadCounts(int cores) {
+        return IntStream.concat(IntStream.iterate(1, n -> n < cores, n -> n * 2), IntStream.of(cores)).toArray();
+    }
+
+    private static double time(Runnable runnable) {
+        for (int i = 0; i < WARMUP; ++i) {
+            runnable.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            runnable.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+}
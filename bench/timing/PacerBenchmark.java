@@ -0,0 +1,46 @@
+package timing;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+// prints the frame time distribution each pacing strategy achieves at 144 hz
+public class PacerBenchmark {
+    private static final long PERIOD_NANOS = Duration.ofSeconds(1).dividedBy(144).toNanos();
+    private static final int  FRAMES       = 720;
+
+    public static void main(String[] args) throws InterruptedException {
+        var pacers = new LinkedHashMap<String, Pacer>();
+        pacers.put("sleep", Pacer.SLEEP);
+        pacers.put("park", Pacer.parkSpin(Duration.ZERO));
+        pacers.put("park+spin 0.5ms", Pacer.parkSpin(Duration.ofNanos(500_000)));
+        pacers.put("park+spin 1ms", Pacer.parkSpin(Duration.ofMillis(1)));
+        System.out.printf("target %.3f ms%n", PERIOD_NANOS / 1e6);
+        System.out.printf("%-16s %9s %9s %9s %9s %9s%n", "pacer", "mean", "p50", "p95", "p99", "max");
+        for (var entry : pacers.entrySet()) {
+            var frames = run(entry.getValue());
+            Arrays.sort(frames);
+            System.out.printf("%-16s %9.3f %9.3f %9.3f %9.3f %9.3f%n", entry.getKey(),
+                    Arrays.stream(frames).average().orElse(0) / 1e6,
+                    frames[frames.length / 2] / 1e6,
+                    frames[frames.length * 95 / 100] / 1e6,
+                    frames[frames.length * 99 / 100] / 1e6,
+                    frames[frames.length - 1] / 1e6);
+        }
+    }
+
+    // waits on a fixed schedule of deadlines, the same way PeriodicExecutor paces runs
+    private static long[] run(Pacer pacer) throws InterruptedException {
+        var frames = new long[FRAMES];
+        long next = System.nanoTime();
+        long prev = next;
+        for (int i = 0; i < FRAMES; ++i) {
+            next += PERIOD_NANOS;
+            pacer.awaitNanos(next);
+            long now = System.nanoTime();
+            frames[i] = now - prev;
+            prev = now;
+        }
+        return frames;
+    }
+}
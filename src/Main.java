@@ -7,12 +7,19 @@ import rendering.AwtViewer;
 import rendering.Checkerboard;
 import rendering.CompositeRenderer;
 import rendering.Eraser;
-import rendering.PixelRaster;
+import rendering.HeadlessViewer;
+import rendering.RasterFactory;
+import rendering.RenderProfileOverlay;
+import rendering.RenderProfiler;
 import rendering.Renderer;
 import scenes.Scene;
 import scenes.SceneAwareProxyBuilder;
 import scenes.textureeditor.TextureEditor;
+import timing.FrameSignal;
+import timing.Pacer;
 import timing.PeriodicExecutor;
+import ui.InputRecorder;
+import ui.InputReplayer;
 
 import java.awt.event.KeyListener;
 import java.awt.event.MouseListener;
@@ -25,11 +32,28 @@ private static final Logger LOG = LogManager.instance().getThis();
 private static final int WIDTH = 800;
 private static final int HEIGHT = 800;
 private static final int FRAME_RATE = 144;
+private static final RasterFactory RASTER_FACTORY = RasterFactory.PACKED;
+// how long an idle editor goes without rendering
+private static final Duration MAX_FRAME_LATENCY = Duration.ofSeconds(1);
+// how much of each frame's wait is spent spinning rather than parked, to absorb wake-up latency
+private static final Duration FRAME_SPIN_BUDGET = Duration.ofMillis(1);
+// renders into offscreen framebuffers instead of a window, redrawing everything every frame as fast as it can
+private static final boolean HEADLESS = Boolean.parseBoolean(System.getProperty("rendering.headless", "false"));
+// headless, saves every this many frames into HEADLESS_DUMP_DIR; 0 saves none
+private static final int HEADLESS_DUMP_EVERY = Integer.getInteger("rendering.headless.dump", 0);
+private static final File HEADLESS_DUMP_DIR = new File("frames");
+// logs all input to this file, for replaying later
+private static final String RECORD_INPUT = System.getProperty("ui.record");
+// headless, replays input from this file as fast as possible (a frame per event), logs frame times and exits
+private static final String REPLAY_INPUT = System.getProperty("ui.replay");
+// draws per-renderer frame timings (and allocations) over the scene
+private static final boolean PROFILE_OVERLAY = Boolean.parseBoolean(System.getProperty("rendering.profile", "false"));
 
 private static final AtomicReference<Scene> SCENE = new AtomicReference<>();
 
-public static void main(String[] ignoredArgs) throws InterruptedException {
-    LOG.info("Width %d, height %d, frame rate %d hz", WIDTH, HEIGHT, FRAME_RATE);
+public static void main(String[] ignoredArgs) throws InterruptedException, IOException {
+    LOG.info("Width %d, height %d, frame rate %d hz, %s rasters%s", WIDTH, HEIGHT, FRAME_RATE, RASTER_FACTORY,
+            HEADLESS ? ", headless" : "");
     Injector.create(new Module() {
                 @Override
                 public void configure(GraphBuilder graphBuilder) {
@@ -42,9 +66,9 @@ public static void main(String[] ignoredArgs) throws InterruptedException {
             })
             .get(PeriodicExecutor.class)
             .execute();
-    var displayRaster = new PixelRaster(WIDTH, HEIGHT, NamedColor.BLACK);
+    var displayRaster = AwtViewer.createDisplay(WIDTH, HEIGHT, NamedColor.BLACK);
     var clock = Clock.systemUTC();
-    var textureEditor = new TextureEditor(displayRaster, clock, 16, 16);
+    var textureEditor = new TextureEditor(displayRaster, clock, 16, 16, RASTER_FACTORY);
     SCENE.set(textureEditor);
     var switchingListener = SceneAwareProxyBuilder.create()
             .withInterfaces(KeyListener.class, MouseListener.class, MouseWheelListener.class, MouseMotionListener.class)
@@ -56,11 +80,55 @@ public static void main(String[] ignoredArgs) throws InterruptedException {
             .withTargetForScene(TextureEditor.class, textureEditor)
             .withSceneSupplier(SCENE::get)
             .build();
-    var renderer = new CompositeRenderer(List.of(
+    var profiler = new RenderProfiler(PROFILE_OVERLAY);
+    var renderers = new ArrayList<Renderer>(List.of(
             new Eraser(displayRaster),
             new Checkerboard(0.8f, 0.9f, displayRaster),
-            switchingRenderer,
-            new AwtViewer(displayRaster, switchingListener)
-    ));
-    new PeriodicExecutor(FRAME_RATE, clock, renderer::render).execute();
+            switchingRenderer));
+    if (PROFILE_OVERLAY) {
+        renderers.add(new RenderProfileOverlay(displayRaster, textureEditor.font(), profiler));
+    }
+    if (HEADLESS) {
+        var viewer = HeadlessViewer.builder().raster(displayRaster);
+        if (HEADLESS_DUMP_EVERY > 0) {
+            viewer.dump(textureEditor.repo(), HEADLESS_DUMP_DIR, HEADLESS_DUMP_EVERY);
+        }
+        renderers.add(viewer.build());
+        var renderer = new CompositeRenderer(renderers, null, profiler);
+        if (REPLAY_INPUT != null) {
+            try (var is = new FileInputStream(REPLAY_INPUT)) {
+                var replayer = InputReplayer.read(is);
+                if (replayer.isFailure()) {
+                    throw new IOException("Failed to read input from " + REPLAY_INPUT, replayer.getFailure());
+                }
+                LOG.info("Replaying %d events from %s", replayer.getSuccess().size(), REPLAY_INPUT);
+                replayer.getSuccess().replay(switchingListener, false, renderer::render);
+            }
+            profiler.timings().forEach(timing -> LOG.info("%s", timing));
+            System.exit(0);
+        }
+        PeriodicExecutor.builder()
+                .hertz(FRAME_RATE)
+                .clock(clock)
+                .runnable(renderer::render)
+                .pacer(Pacer.NONE)
+                .build()
+                .execute();
+        return;
+    }
+    var listener = RECORD_INPUT == null
+            ? switchingListener
+            : new InputRecorder(switchingListener, new BufferedOutputStream(new FileOutputStream(RECORD_INPUT)));
+    renderers.add(new AwtViewer(displayRaster, listener, textureEditor.invalidation()));
+    var renderer = new CompositeRenderer(renderers, textureEditor.invalidation(), profiler);
+    var frameSignal = new FrameSignal();
+    textureEditor.invalidation().addListener(frameSignal::signal);
+    PeriodicExecutor.builder()
+            .hertz(FRAME_RATE)
+            .clock(clock)
+            .runnable(renderer::render)
+            .onDemand(frameSignal, MAX_FRAME_LATENCY)
+            .pacer(Pacer.parkSpin(FRAME_SPIN_BUDGET))
+            .build()
+            .execute();
 }
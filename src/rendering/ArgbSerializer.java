@@ -14,9 +14,17 @@ public class ArgbSerializer implements RasterSerializer {
     private static final String UUID         = "17E1BD52E4D7A8B5";
     private static final byte[] VERSION_BLOB = ("ARGB." + UUID).getBytes(StandardCharsets.UTF_8);
 
-    public static final ArgbSerializer INSTANCE = new ArgbSerializer();
+    public static final ArgbSerializer INSTANCE = new ArgbSerializer(RasterFactory.PLANAR);
 
-    private ArgbSerializer() {}
+    private final RasterFactory rasterFactory;
+
+    private ArgbSerializer(RasterFactory rasterFactory) {
+        this.rasterFactory = rasterFactory;
+    }
+
+    public static ArgbSerializer of(RasterFactory rasterFactory) {
+        return RasterFactory.PLANAR == rasterFactory ? INSTANCE : new ArgbSerializer(rasterFactory);
+    }
 
     @Override
     public Result<byte[], Exception> serialize(Raster raster) {
@@ -46,7 +54,7 @@ public class ArgbSerializer implements RasterSerializer {
             if (0 != rem) {
                 return Result.failure(new RuntimeException(rem + " bytes remaining"));
             }
-            return Result.success(new PixelRaster(w, h, argb));
+            return Result.success(rasterFactory.create(w, h, argb[0], argb[1], argb[2], argb[3]));
         } catch (IOException e) {
             return Result.failure(e);
         }
@@ -4,12 +4,18 @@ import logging.LogManager;
 import logging.Logger;
 
 import javax.swing.JFrame;
+import java.awt.BufferCapabilities;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Optional;
 
 public class AwtViewer implements Renderer {
     private static final Logger LOG = LogManager.instance().getThis();
@@ -17,9 +23,45 @@ public class AwtViewer implements Renderer {
     private final Raster         raster;
     private final BufferStrategy bs;
     private final BufferedImage  image;
+    private final Damage.Rect    full;
+    // whether a back buffer keeps what was last drawn into it, so only damaged areas need to be redrawn
+    private final boolean        partialPresents;
+    private       Damage.Rect    previous;
+
+    // a display raster whose pixels are the image's own DataBufferInt. rendering into it writes straight into the image,
+    // so presenting is just a drawImage.
+    // writes are tracked, so only what changed gets presented.
+    static final class ImageRaster extends PackedRaster {
+        private final BufferedImage image;
+        private final Damage        damage;
+
+        private ImageRaster(BufferedImage image) {
+            super(image.getWidth(), image.getHeight(), ((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+            this.image = image;
+            this.damage = new Damage(image.getWidth(), image.getHeight());
+        }
+
+        @Override
+        public Optional<Damage> damage() {
+            return Optional.of(damage);
+        }
+    }
+
+    // TYPE_INT_ARGB holds the same straight argb ints as PackedRaster; drawn over black it shows what rgb() would
+    public static Raster createDisplay(int width, int height, Color color) {
+        var display = new ImageRaster(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+        Arrays.fill(display.data(), color.argbInt32());
+        display.damage.addFull();
+        return display;
+    }
 
     // TODO maybe DI this?
     public AwtViewer(Raster raster, Object listener) {
+        this(raster, listener, null);
+    }
+
+    // invalidation, if given, is told to redraw everything when the window comes back into view
+    public AwtViewer(Raster raster, Object listener, Damage invalidation) {
         this.raster = raster;
         var frame = new JFrame();
         frame.setTitle("game");
@@ -30,23 +72,84 @@ public class AwtViewer implements Renderer {
         frame.setVisible(true);
         frame.createBufferStrategy(2);
         bs = frame.getBufferStrategy();
-        image = new BufferedImage(raster.width(), raster.height(), BufferedImage.TYPE_INT_RGB);
+        var caps = bs.getCapabilities();
+        full = new Damage.Rect(0, 0, raster.width(), raster.height());
+        partialPresents = raster instanceof ImageRaster && (!caps.isPageFlipping()
+                || caps.getFlipContents() == BufferCapabilities.FlipContents.PRIOR);
+        previous = full;
+        if (raster instanceof ImageRaster display) {
+            LOG.info("Presenting display raster without copying");
+            image = display.image;
+        } else {
+            image = new BufferedImage(raster.width(), raster.height(), BufferedImage.TYPE_INT_RGB);
+        }
         if (listener instanceof KeyListener kl) frame.addKeyListener(kl);
         if (listener instanceof MouseListener ml) frame.addMouseListener(ml);
         if (listener instanceof MouseMotionListener mml) frame.addMouseMotionListener(mml);
         if (listener instanceof MouseWheelListener mwl) frame.addMouseWheelListener(mwl);
+        if (invalidation != null) {
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowActivated(WindowEvent e) {
+                    invalidation.addFull();
+                }
+
+                @Override
+                public void windowDeiconified(WindowEvent e) {
+                    invalidation.addFull();
+                }
+            });
+        }
     }
 
     @Override
     public void render() {
+        present(null);
+    }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        present(clip);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
+    // presents clip plus whatever was written to the display since the last present
+    private void present(Damage.Rect clip) {
+        var written = raster.damage().map(Damage::drain).flatMap(Damage.Rect::bounds);
+        var region = full;
+        if (partialPresents) {
+            region = written.orElse(new Damage.Rect(0, 0, 0, 0));
+            if (clip != null) {
+                region = region.union(clip);
+            }
+            // with page flipping the back buffer holds the frame before last, so it's also missing the previous region
+            var damaged = region.union(previous);
+            previous = region;
+            region = damaged;
+            if (region.isEmpty()) {
+                LOG.trace("Nothing damaged, skipping present");
+                return;
+            }
+        }
         int i = 0;
         do {
             LOG.debug("Render attempt %d...", i);
             do {
                 var g = bs.getDrawGraphics();
-                image.getRaster().setPixels(0, 0, raster.width(), raster.height(), raster.rgb());
-                g.drawImage(image, 0, 0, null);
+                if (raster instanceof ImageRaster) {
+                    int x1 = region.x(), y1 = region.y(), x2 = x1 + region.w(), y2 = y1 + region.h();
+                    g.drawImage(image, x1, y1, x2, y2, x1, y1, x2, y2, java.awt.Color.BLACK, null);
+                } else {
+                    image.getRaster().setPixels(0, 0, raster.width(), raster.height(), raster.rgb());
+                    g.drawImage(image, 0, 0, null);
+                }
                 g.dispose();
+                // restored buffers start out blank
+                region = full;
             } while (bs.contentsRestored());
             bs.show();
         } while (bs.contentsLost());
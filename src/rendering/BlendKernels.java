@@ -0,0 +1,38 @@
+package rendering;
+
+final class BlendKernels {
+    enum Op {OVER_STRAIGHT, OVER_PRE, SUBTRACT}
+
+    // the vector api is an incubator module; without --add-modules jdk.incubator.vector (or with -Drendering.simd=false)
+    // spans are blended one pixel at a time
+    static final boolean VECTORIZED = Boolean.parseBoolean(System.getProperty("rendering.simd", "true"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private BlendKernels() {
+    }
+
+    static BlendMode.IntBlendMode of(Op op, BlendMode.IntBlendMode scalar) {
+        return new Kernel(op, scalar, VECTORIZED);
+    }
+
+    // per-pixel blending is left to the scalar lambda; spans go through the vector kernels, with the scalar lambda
+    // finishing whatever doesn't fill a whole vector
+    record Kernel(Op op, BlendMode.IntBlendMode scalar, boolean vectorized) implements BlendMode.IntBlendMode {
+        @Override
+        public int applyArgb(int fg, int bg) {
+            return scalar.applyArgb(fg, bg);
+        }
+
+        @Override
+        public void applyArgb(int[] fg, int fgOffset, int[] bg, int bgOffset, int length) {
+            int done = vectorized ? VectorBlendKernels.blendPacked(op, fg, fgOffset, bg, bgOffset, length) : 0;
+            BlendMode.IntBlendMode.super.applyArgb(fg, fgOffset + done, bg, bgOffset + done, length - done);
+        }
+
+        @Override
+        public void applyPlanar(PixelRaster fg, int fgOffset, PixelRaster bg, int bgOffset, int length) {
+            int done = vectorized ? VectorBlendKernels.blendPlanar(op, fg, fgOffset, bg, bgOffset, length) : 0;
+            BlendMode.IntBlendMode.super.applyPlanar(fg, fgOffset + done, bg, bgOffset + done, length - done);
+        }
+    }
+}
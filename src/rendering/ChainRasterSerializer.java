@@ -25,7 +25,7 @@ public class ChainRasterSerializer implements RasterSerializer {
     @Override
     public Result<byte[], Exception> serialize(Raster raster) {
         return chain.stream()
-                .map(nrs -> new Named<>(nrs.name(), nrs.t().serialize(raster)))
+                .map(nrs -> new Named<>(nrs.name(), serialize(nrs.t(), raster)))
                 .filter(nrs -> nrs.t().isSuccess())
                 .limit(1)
                 .peek(nrs -> LOG.debug("Serialized using %s", nrs.name()))
@@ -37,7 +37,7 @@ public class ChainRasterSerializer implements RasterSerializer {
     @Override
     public Result<Raster, Exception> deserialize(byte[] bytes) {
         return chain.stream()
-                .map(nrs -> new Named<>(nrs.name(), nrs.t().deserialize(bytes)))
+                .map(nrs -> new Named<>(nrs.name(), deserialize(nrs.t(), bytes)))
                 .filter(nrs -> nrs.t().isSuccess())
                 .limit(1)
                 .peek(nrs -> LOG.debug("Deserialized using %s", nrs.name()))
@@ -45,4 +45,34 @@ public class ChainRasterSerializer implements RasterSerializer {
                 .map(Named::t)
                 .orElseGet(() -> Result.failure(new RuntimeException("No applicable deserializers")));
     }
+
+    private static Result<byte[], Exception> serialize(RasterSerializer serializer, Raster raster) {
+        var event = new SerializerEvent();
+        event.begin();
+        var res = serializer.serialize(raster);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "encode";
+            event.serializer = serializer.getClass().getSimpleName();
+            event.bytes = res.isSuccess() ? res.getSuccess().length : 0;
+            event.success = res.isSuccess();
+            event.commit();
+        }
+        return res;
+    }
+
+    private static Result<Raster, Exception> deserialize(RasterSerializer serializer, byte[] bytes) {
+        var event = new SerializerEvent();
+        event.begin();
+        var res = serializer.deserialize(bytes);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "decode";
+            event.serializer = serializer.getClass().getSimpleName();
+            event.bytes = bytes.length;
+            event.success = res.isSuccess();
+            event.commit();
+        }
+        return res;
+    }
 }
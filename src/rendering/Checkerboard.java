@@ -1,13 +1,19 @@
 package rendering;
 
+import java.util.Optional;
+
 public class Checkerboard implements Renderer {
-    private final Renderer delegate;
+    private final Raster        raster;
+    private final ImageRenderer delegate;
 
     public Checkerboard(float a1, float a2, Raster raster) {
-        var checkerboard = new PixelRaster(raster.w(), raster.h(), (_, x, y)
+        int c1 = Color.NamedColor.WHITE.withAlpha(a1).argbInt32();
+        int c2 = Color.NamedColor.WHITE.withAlpha(a2).argbInt32();
+        var checkerboard = PackedRaster.ofArgb(raster.w(), raster.h(), (_, x, y)
                 -> (x / 50) % 2 == 0
-                ? (y / 50) % 2 == 0 ? Color.NamedColor.WHITE.withAlpha(a1) : Color.NamedColor.WHITE.withAlpha(a2)
-                : (y / 50) % 2 == 0 ? Color.NamedColor.WHITE.withAlpha(a2) : Color.NamedColor.WHITE.withAlpha(a1));
+                ? (y / 50) % 2 == 0 ? c1 : c2
+                : (y / 50) % 2 == 0 ? c2 : c1);
+        this.raster = raster;
         this.delegate = new ImageRenderer(checkerboard, raster, BlendMode.OVER_PRE);
     }
 
@@ -15,4 +21,19 @@ public class Checkerboard implements Renderer {
     public void render() {
         delegate.render();
     }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        delegate.render(clip);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
+    @Override
+    public Optional<Raster> staticTarget() {
+        return Optional.of(raster);
+    }
 }
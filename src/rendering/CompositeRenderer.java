@@ -9,18 +9,123 @@ public class CompositeRenderer implements Renderer {
     private static final Logger LOG = LogManager.instance().getThis();
 
     private final Collection<Renderer> delegates;
+    private final Damage               invalidation;
+    private final RenderProfiler       profiler;
+    // the leading run of static delegates that draw into one raster. once a full frame has rendered them, their output
+    // is kept in background and copied back instead.
+    private final Raster               staticTarget;
+    private final int                  staticCount;
+
+    private Raster background;
 
     public CompositeRenderer(Collection<Renderer> delegates) {
+        this(delegates, null);
+    }
+
+    // only renders frames where something was invalidated, and then only the invalidated area
+    public CompositeRenderer(Collection<Renderer> delegates, Damage invalidation) {
+        this(delegates, invalidation, new RenderProfiler());
+    }
+
+    public CompositeRenderer(Collection<Renderer> delegates, Damage invalidation, RenderProfiler profiler) {
         this.delegates = delegates;
+        this.invalidation = invalidation;
+        this.profiler = profiler;
+        profiler.register(delegates);
+        Raster target = null;
+        int count = 0;
+        for (Renderer delegate : delegates) {
+            var delegateTarget = delegate.staticTarget();
+            if (delegateTarget.isEmpty() || target != null && delegateTarget.get() != target) {
+                break;
+            }
+            target = delegateTarget.get();
+            ++count;
+        }
+        this.staticTarget = target;
+        this.staticCount = count;
+    }
+
+    public RenderProfiler profiler() {
+        return profiler;
+    }
+
+    // the static delegates' inputs changed; the next full frame renders them again
+    public void invalidateBackground() {
+        background = null;
     }
 
     @Override
     public void render() {
+        if (invalidation == null) {
+            renderDelegates(null);
+            return;
+        }
+        var bounds = Damage.Rect.bounds(invalidation.drain());
+        if (bounds.isEmpty()) {
+            LOG.trace("Nothing invalidated, skipping frame");
+            return;
+        }
+        // a delegate that always draws everything would blend over pixels the others didn't redraw
+        renderDelegates(supportsClip() ? bounds.get() : invalidation.full());
+    }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        renderDelegates(clip);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return delegates.stream().allMatch(Renderer::supportsClip);
+    }
+
+    // a null clip renders everything
+    private void renderDelegates(Damage.Rect clip) {
+        profiler.beginFrame();
+        if (background != null && (background.w() != staticTarget.w() || background.h() != staticTarget.h())) {
+            LOG.debug("Static target resized, dropping background");
+            background = null;
+        }
+        // a clipped frame leaves the rest of the target stale, so only a full one can be kept
+        boolean capture = staticCount > 0 && background == null
+                && (clip == null || clip.equals(new Damage.Rect(0, 0, staticTarget.w(), staticTarget.h())));
         int i = 0;
         for (Renderer delegate : delegates) {
             LOG.debug("Renderer %s (%d of %d) rendering...", delegate, i, delegates.size());
-            delegate.render();
+            var event = new RenderEvent();
+            event.begin();
+            profiler.beginRender();
+            if (i < staticCount && background != null) {
+                // the whole run is in the background, so the rest of it has nothing left to do
+                if (i == 0) {
+                    restoreBackground(clip);
+                }
+            } else if (clip == null) {
+                delegate.render();
+            } else {
+                delegate.render(clip);
+            }
+            if (capture && i == staticCount - 1) {
+                background = staticTarget.clone();
+            }
+            profiler.endRender(i);
+            event.end();
+            if (event.shouldCommit()) {
+                event.renderer = delegate.getClass().getSimpleName();
+                event.clip = String.valueOf(clip);
+                event.commit();
+            }
             ++i;
         }
+        profiler.endFrame();
+    }
+
+    private void restoreBackground(Damage.Rect clip) {
+        if (clip == null) {
+            staticTarget.copyRegion(background, 0, 0, 0, 0, background.w(), background.h());
+        } else {
+            staticTarget.copyRegion(background, clip.x(), clip.y(), clip.x(), clip.y(), clip.w(), clip.h());
+        }
     }
 }
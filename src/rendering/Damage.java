@@ -0,0 +1,106 @@
+package rendering;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// accumulates dirty rectangles of a width x height surface until they are drained, typically once per frame.
+// writers on any thread may add; past MAX_RECTS the rectangles collapse into their bounding box.
+public class Damage {
+    private static final int MAX_RECTS = 16;
+
+    public record Rect(int x, int y, int w, int h) {
+        public boolean isEmpty() {
+            return w <= 0 || h <= 0;
+        }
+
+        public Rect union(Rect other) {
+            if (isEmpty()) {
+                return other;
+            }
+            if (other.isEmpty()) {
+                return this;
+            }
+            int minX = Math.min(x, other.x);
+            int minY = Math.min(y, other.y);
+            int maxX = Math.max(x + w, other.x + other.w);
+            int maxY = Math.max(y + h, other.y + other.h);
+            return new Rect(minX, minY, maxX - minX, maxY - minY);
+        }
+
+        public Rect intersect(Rect other) {
+            int minX = Math.max(x, other.x);
+            int minY = Math.max(y, other.y);
+            int maxX = Math.min(x + w, other.x + other.w);
+            int maxY = Math.min(y + h, other.y + other.h);
+            return new Rect(minX, minY, Math.max(0, maxX - minX), Math.max(0, maxY - minY));
+        }
+
+        public boolean contains(Rect other) {
+            return other.x >= x && other.y >= y && other.x + other.w <= x + w && other.y + other.h <= y + h;
+        }
+
+        public static Optional<Rect> bounds(List<Rect> rects) {
+            return rects.stream().reduce(Rect::union);
+        }
+    }
+
+    private final Rect           full;
+    private final List<Rect>     rects     = new ArrayList<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    public Damage(int width, int height) {
+        this.full = new Rect(0, 0, width, height);
+    }
+
+    public Rect full() {
+        return full;
+    }
+
+    public void add(int x, int y, int w, int h) {
+        add(new Rect(x, y, w, h));
+    }
+
+    public void add(Rect rect) {
+        var clipped = rect.intersect(full);
+        if (clipped.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (var r : rects) {
+                if (r.contains(clipped)) {
+                    return;
+                }
+            }
+            rects.removeIf(clipped::contains);
+            rects.add(clipped);
+            if (rects.size() > MAX_RECTS) {
+                var bounds = Rect.bounds(rects).orElseThrow();
+                rects.clear();
+                rects.add(bounds);
+            }
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    // called after every add that damaged something new, on the adding thread
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void addFull() {
+        add(full);
+    }
+
+    public synchronized boolean isEmpty() {
+        return rects.isEmpty();
+    }
+
+    // returns everything damaged since the last drain, and starts over
+    public synchronized List<Rect> drain() {
+        var res = List.copyOf(rects);
+        rects.clear();
+        return res;
+    }
+}
@@ -1,6 +1,10 @@
 package rendering;
 
+import java.util.Optional;
+
 public class Eraser implements Renderer {
+    private static final int NONE = Color.NamedColor.NONE.argbInt32();
+
     private final Raster raster;
 
     public Eraser(Raster raster) {
@@ -9,6 +13,21 @@ public class Eraser implements Renderer {
 
     @Override
     public void render() {
-        raster.write(0, 0, raster.w(), raster.h(), (_, _, _) -> Color.NamedColor.NONE);
+        raster.writeArgb(0, 0, raster.w(), raster.h(), (_, _, _) -> NONE);
+    }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        raster.writeArgb(clip.x(), clip.y(), clip.w(), clip.h(), (_, _, _) -> NONE);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
+    @Override
+    public Optional<Raster> staticTarget() {
+        return Optional.of(raster);
     }
 }
@@ -32,11 +32,18 @@ public class FileSystemRasterRepository implements RasterRepository {
         } else {
             return fail("Failed to load from file; %s does not exist", file);
         }
+        var event = new RasterIoEvent();
+        event.begin();
         try (var fis = new FileInputStream(file)) {
-            return serializer.deserialize(fis.readAllBytes());
+            var bytes = fis.readAllBytes();
+            event.bytes = bytes.length;
+            var res = serializer.deserialize(bytes);
+            event.success = res.isSuccess();
+            return res;
         } catch (IOException e) {
             return Result.failure(e);
         } finally {
+            commit(event, "load", file);
             var end = clock.instant();
             LOG.info("Loaded from %s in %s", file, Duration.between(start, end));
         }
@@ -76,14 +83,31 @@ public class FileSystemRasterRepository implements RasterRepository {
                 return fail(e, "Failed to create file: %s", file);
             }
         }
+        var event = new RasterIoEvent();
+        event.begin();
         try (var fos = new FileOutputStream(file)) {
-            return serializer.serialize(raster)
+            var res = serializer.serialize(raster)
                     .ifSuccess(fos::write);
+            if (res.isSuccess()) {
+                event.bytes = res.getSuccess().length;
+                event.success = true;
+            }
+            return res;
         } catch (IOException e) {
             return Result.failure(e);
         } finally {
+            commit(event, "save", file);
             var end = clock.instant();
             LOG.info("Saved to %s in %s", file, Duration.between(start, end));
         }
     }
+
+    private static void commit(RasterIoEvent event, String operation, File file) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.path = file.getPath();
+            event.commit();
+        }
+    }
 }
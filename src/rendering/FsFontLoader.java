@@ -60,13 +60,18 @@ public class FsFontLoader implements FontLoader {
     private final Path             fontPath;
     private final int              size;
     private final RasterFilter     filter;
+    private final RasterFactory    rasterFactory;
+    private final TileExecutor     executor;
 
-    private FsFontLoader(RasterRepository repository, Clock clock, Path fontPath, int size, RasterFilter filter) {
+    private FsFontLoader(RasterRepository repository, Clock clock, Path fontPath, int size, RasterFilter filter,
+                         RasterFactory rasterFactory, TileExecutor executor) {
         this.repository = repository;
         this.clock = clock;
         this.fontPath = fontPath;
         this.size = size;
         this.filter = filter;
+        this.rasterFactory = rasterFactory;
+        this.executor = executor;
     }
 
     @Override
@@ -86,6 +91,8 @@ public class FsFontLoader implements FontLoader {
         private Path             fontPath;
         private Integer          size;
         private RasterFilter     filter;
+        private RasterFactory    rasterFactory;
+        private TileExecutor     executor;
 
         private Builder() {}
 
@@ -122,6 +129,17 @@ public class FsFontLoader implements FontLoader {
             return this;
         }
 
+        public Builder rasterFactory(RasterFactory rasterFactory) {
+            this.rasterFactory = rasterFactory;
+            return this;
+        }
+
+        // glyphs are filtered independently of each other, on this executor
+        public Builder executor(TileExecutor executor) {
+            this.executor = executor;
+            return this;
+        }
+
         public FsFontLoader build() {
             if (repository == null) {
                 throw new IllegalArgumentException("repository");
@@ -138,7 +156,13 @@ public class FsFontLoader implements FontLoader {
             if (filter == null) {
                 filter = RasterFilter.NO_OP;
             }
-            return new FsFontLoader(repository, clock, fontPath, size, filter);
+            if (rasterFactory == null) {
+                rasterFactory = RasterFactory.PLANAR;
+            }
+            if (executor == null) {
+                executor = TileExecutor.SEQUENTIAL;
+            }
+            return new FsFontLoader(repository, clock, fontPath, size, filter, rasterFactory, executor);
         }
     }
 
@@ -167,12 +191,17 @@ public class FsFontLoader implements FontLoader {
                     .ifFailure(LOG::warn)
                     .ifSuccess(asset -> {
                         LOG.debug("Loaded asset for '%c' from %s", c, filename);
-                        res.put(c, asset);
+                        res.put(c, rasterFactory.convert(asset));
                     });
         });
         // nil must be loadable (to render missing textures), but can be overridden
-        res.putIfAbsent('\0', new PixelRaster(size, size, Color.NamedColor.BLACK));
-        res.replaceAll((_, v) -> filter.apply(v));
+        res.putIfAbsent('\0', rasterFactory.create(size, size, Color.NamedColor.BLACK));
+        var glyphs = res.keySet().toArray(Character[]::new);
+        var filtered = new Raster[glyphs.length];
+        executor.forEach(glyphs.length, i -> filtered[i] = filter.apply(res.get(glyphs[i])));
+        for (int i = 0; i < glyphs.length; ++i) {
+            res.put(glyphs[i], filtered[i]);
+        }
         LOG.info("Loaded font %s in %s", fontPath, Duration.between(start, clock.instant()));
         return res;
     }
@@ -0,0 +1,96 @@
+package rendering;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// least recently used glyph rasters, already tinted and scaled for printing. glyphs are looked up by font, character,
+// tint and size; how they're blended is up to the printer, so one cached glyph serves every blend mode.
+public class GlyphCache {
+    private static final int DEFAULT_CAPACITY = Integer.getInteger("rendering.glyphCache", 1024);
+
+    public static final GlyphCache SHARED = new GlyphCache(DEFAULT_CAPACITY);
+
+    private record Key(Font font, char c, int rgb, int size, RasterFactory factory) {
+    }
+
+    private final int                        capacity;
+    private final LinkedHashMap<Key, Raster> glyphs;
+
+    private long hits      = 0;
+    private long misses    = 0;
+    private long evictions = 0;
+
+    public GlyphCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be a positive integer");
+        }
+        this.capacity = capacity;
+        this.glyphs = new LinkedHashMap<>(16, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Raster> eldest) {
+                if (size() > GlyphCache.this.capacity) {
+                    ++evictions;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // the size x size glyph for c, with the font's black mapped to color; the result must not be written to
+    public synchronized Raster get(Font font, char c, Color color, int size, RasterFactory factory) {
+        var key = new Key(font, c, color.rgbInt24(), size, factory);
+        var glyph = glyphs.get(key);
+        if (glyph != null) {
+            ++hits;
+            return glyph;
+        }
+        ++misses;
+        glyph = render(font.getChar(c), color, size, factory);
+        glyphs.put(key, glyph);
+        return glyph;
+    }
+
+    private static Raster render(Raster asset, Color color, int size, RasterFactory factory) {
+        var tint = PixelFilter.chromaMap(Color.NamedColor.BLACK, color);
+        // same sampling as chromaMap(...).asRasterFilter() followed by Raster#scale
+        int assetW = asset.w();
+        double xScale = 1. * assetW / size;
+        double yScale = 1. * asset.h() / size;
+        return factory.createArgb(size, size, (_, x, y) -> {
+            int argb = asset.argbInt32((int) (yScale * y) * assetW + (int) (xScale * x));
+            // transparent black is black too, but tinting it would show up as a box under OVER_PRE
+            return argb >>> 24 == 0 ? argb : tint.applyArgb(argb);
+        });
+    }
+
+    public synchronized void clear() {
+        glyphs.clear();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return glyphs.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GlyphCache[size=%d/%d, hits=%d, misses=%d, evictions=%d]".formatted(
+                glyphs.size(), capacity, hits, misses, evictions);
+    }
+}
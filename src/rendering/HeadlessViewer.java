@@ -0,0 +1,114 @@
+package rendering;
+
+import logging.LogManager;
+import logging.Logger;
+
+import java.io.File;
+
+// presents into a ring of offscreen framebuffers instead of a window, so the whole renderer stack runs without a
+// display. optionally saves every dumpEvery-th frame through a repository.
+public class HeadlessViewer implements Renderer {
+    private static final Logger LOG = LogManager.instance().getThis();
+
+    private final Raster           raster;
+    private final Raster[]         ring;
+    private final RasterRepository repository;
+    private final File             dumpDir;
+    private final int              dumpEvery;
+    private       long             frames = 0;
+
+    private HeadlessViewer(Raster raster, int ringSize, RasterFactory rasterFactory, RasterRepository repository,
+                           File dumpDir, int dumpEvery) {
+        this.raster = raster;
+        this.ring = new Raster[ringSize];
+        for (int i = 0; i < ringSize; ++i) {
+            ring[i] = rasterFactory.create(raster.width(), raster.height());
+        }
+        this.repository = repository;
+        this.dumpDir = dumpDir;
+        this.dumpEvery = dumpEvery;
+        if (repository != null) {
+            LOG.info("Dumping every %d frames to %s", dumpEvery, dumpDir);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Raster           raster;
+        private int              ringSize      = 3;
+        private RasterFactory    rasterFactory = RasterFactory.PACKED;
+        private RasterRepository repository;
+        private File             dumpDir;
+        private int              dumpEvery;
+
+        private Builder() {}
+
+        public Builder raster(Raster raster) {
+            this.raster = raster;
+            return this;
+        }
+
+        public Builder ringSize(int ringSize) {
+            if (ringSize < 1) {
+                throw new IllegalArgumentException("Ring size must be a positive integer");
+            }
+            this.ringSize = ringSize;
+            return this;
+        }
+
+        public Builder rasterFactory(RasterFactory rasterFactory) {
+            this.rasterFactory = rasterFactory;
+            return this;
+        }
+
+        // saves frames 0, every, 2 * every, ... into dir
+        public Builder dump(RasterRepository repository, File dir, int every) {
+            if (every < 1) {
+                throw new IllegalArgumentException("Dump interval must be a positive integer");
+            }
+            this.repository = repository;
+            this.dumpDir = dir;
+            this.dumpEvery = every;
+            return this;
+        }
+
+        public HeadlessViewer build() {
+            if (raster == null) {
+                throw new IllegalArgumentException("raster");
+            }
+            if (rasterFactory == null) {
+                throw new IllegalArgumentException("rasterFactory");
+            }
+            return new HeadlessViewer(raster, ringSize, rasterFactory, repository, dumpDir, dumpEvery);
+        }
+    }
+
+    @Override
+    public void render() {
+        // nothing reads the raster's damage without a window, so drop it rather than let it pile up
+        raster.damage().ifPresent(Damage::drain);
+        var framebuffer = ring[(int) (frames % ring.length)];
+        framebuffer.copyRegion(raster, 0, 0, 0, 0, raster.width(), raster.height());
+        if (repository != null && frames % dumpEvery == 0) {
+            var file = new File(dumpDir, "frame_%08d.tx".formatted(frames));
+            repository.save(file, framebuffer)
+                    .ifFailure(e -> LOG.error(e, "Failed to dump frame %d", frames));
+        }
+        ++frames;
+    }
+
+    public long frames() {
+        return frames;
+    }
+
+    // the frame presented framesAgo frames ago, 0 being the latest; only the last ring size frames are kept
+    public Raster frame(int framesAgo) {
+        if (framesAgo < 0 || framesAgo >= ring.length || framesAgo >= frames) {
+            throw new IllegalArgumentException("No frame %d frames ago".formatted(framesAgo));
+        }
+        return ring[(int) ((frames - 1 - framesAgo) % ring.length)];
+    }
+}
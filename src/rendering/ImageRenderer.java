@@ -12,11 +12,21 @@ public class ImageRenderer implements Renderer {
     }
 
     public ImageRenderer(Color color, Raster raster, BlendMode blendMode) {
-        this(new PixelRaster(raster.w(), raster.h(), color), raster, blendMode);
+        this(new PackedRaster(raster.w(), raster.h(), color), raster, blendMode);
     }
 
     @Override
     public void render() {
         painter.drawImg(0, 0, image, blendMode);
     }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        painter.drawImg(clip.x(), clip.y(), image, clip.x(), clip.y(), clip.w(), clip.h(), blendMode);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
 }
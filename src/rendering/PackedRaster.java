@@ -0,0 +1,363 @@
+package rendering;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public class PackedRaster implements Raster {
+    private final int   w;
+    private final int   h;
+    private final int[] argb;
+
+    public PackedRaster(Raster other) {
+        this(other.width(), other.height(), pack(other));
+    }
+
+    public PackedRaster(int width, int height) {
+        this(width, height, Color.NamedColor.NONE);
+    }
+
+    public PackedRaster(int width, int height, Color color) {
+        this(width, height, fill(width * height, color.argbInt32()));
+    }
+
+    public PackedRaster(int width, int height, Painter.ImageSampler imageSampler) {
+        this(width, height, initInts(width, height, imageSampler));
+    }
+
+    public PackedRaster(int width, int height, byte[] alpha, byte[] red, byte[] green, byte[] blue) {
+        this(width, height, pack(width * height, alpha, red, green, blue));
+    }
+
+    public PackedRaster(int width, int height, int[] argb) {
+        if (argb.length != width * height) {
+            throw new IllegalArgumentException(
+                    "Expected %d pixels for [w=%d, h=%d], got %d".formatted(width * height, width, height, argb.length));
+        }
+        this.w = width;
+        this.h = height;
+        this.argb = argb;
+    }
+
+    @Override
+    public int width() {
+        return w;
+    }
+
+    @Override
+    public int height() {
+        return h;
+    }
+
+    public int[] data() {
+        return argb;
+    }
+
+    @Override
+    public int[] rgb() {
+        int n = w * h;
+        var res = new int[n * 3];
+        int resI = 0;
+        for (int i = 0; i < n; ++i) {
+            int c = argb[i];
+            var alpha = (c >>> 24) / 255.;
+            res[resI++] = ((int) (alpha * ((c >> 16) & 0xff))) & 0xff;
+            res[resI++] = ((int) (alpha * ((c >> 8) & 0xff))) & 0xff;
+            res[resI++] = ((int) (alpha * (c & 0xff))) & 0xff;
+        }
+        return res;
+    }
+
+    @Override
+    public int[] argb() {
+        int n = w * h;
+        var res = new int[n * 4];
+        int resI = 0;
+        for (int i = 0; i < n; ++i) {
+            int c = argb[i];
+            res[resI++] = c >>> 24;
+            res[resI++] = (c >> 16) & 0xff;
+            res[resI++] = (c >> 8) & 0xff;
+            res[resI++] = c & 0xff;
+        }
+        return res;
+    }
+
+    // planes are not backing storage here; these are copies, so writes to them are not reflected in the raster
+    @Override
+    public byte[] alpha() {
+        return plane(24);
+    }
+
+    @Override
+    public byte[] red() {
+        return plane(16);
+    }
+
+    @Override
+    public byte[] green() {
+        return plane(8);
+    }
+
+    @Override
+    public byte[] blue() {
+        return plane(0);
+    }
+
+    @Override
+    public void read(int x, int y, int w, int h, Reader<?> reader) {
+        for (int r = Math.max(0, y); r < Math.min(y + h, this.h); ++r) {
+            for (int c = Math.max(0, x); c < Math.min(x + w, this.w); ++c) {
+                reader.apply(c, r, Color.ArgbInt32Color.of(argb[r * this.w + c]));
+            }
+        }
+    }
+
+    @Override
+    public <T> Readable<T> read() {
+        return new Readable<T>() {
+            private int i = 0;
+
+            @Override
+            public T next(Reader<T> reader) {
+                T res = reader.apply(i % w, i / w, Color.ArgbInt32Color.of(argb[i]));
+                ++i;
+                return res;
+            }
+        };
+    }
+
+    @Override
+    public void readArgb(int x, int y, int w, int h, IntReader reader) {
+        for (int r = Math.max(0, y); r < Math.min(y + h, this.h); ++r) {
+            int i = r * this.w + Math.max(0, x);
+            for (int c = Math.max(0, x); c < Math.min(x + w, this.w); ++c) {
+                reader.apply(c, r, argb[i]);
+                ++i;
+            }
+        }
+    }
+
+    @Override
+    public IntReadable readArgb() {
+        return new IntReadable() {
+            private int i = 0;
+
+            @Override
+            public int next(IntReader reader) {
+                int res = reader.apply(i % w, i / w, argb[i]);
+                ++i;
+                return res;
+            }
+        };
+    }
+
+    @Override
+    public void write(int x, int y, int w, int h, Writer writer) {
+        int i = 0;
+        for (int r = Math.max(0, y); r < Math.min(y + h, this.h); ++r) {
+            for (int c = Math.max(0, x); c < Math.min(x + w, this.w); ++c) {
+                argb[r * this.w + c] = writer.write(i, c, r).argbInt32();
+                ++i;
+            }
+        }
+        damage(x, y, w, h);
+    }
+
+    @Override
+    public void writeArgb(int x, int y, int w, int h, IntWriter writer) {
+        int n = 0;
+        for (int r = Math.max(0, y); r < Math.min(y + h, this.h); ++r) {
+            int i = r * this.w + Math.max(0, x);
+            for (int c = Math.max(0, x); c < Math.min(x + w, this.w); ++c) {
+                argb[i] = writer.write(n, c, r);
+                ++i;
+                ++n;
+            }
+        }
+        damage(x, y, w, h);
+    }
+
+    @Override
+    public Color pixel(int x, int y) {
+        x = Math.max(0, Math.min(x, w - 1));
+        y = Math.max(0, Math.min(y, h - 1));
+        return Color.ArgbInt32Color.of(argb[y * w + x]);
+    }
+
+    @Override
+    public void pixel(int x, int y, Color color) {
+        argb[y * w + x] = color.argbInt32();
+        damage(x, y, 1, 1);
+    }
+
+    @Override
+    public int argbInt32(int i) {
+        return argb[i];
+    }
+
+    @Override
+    public void argbInt32(int i, int argb) {
+        this.argb[i] = argb;
+    }
+
+    @Override
+    public void getArgb(int x, int y, int w, int h, int[] dst, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        for (int r = 0; r < h; ++r) {
+            System.arraycopy(argb, (y + r) * this.w + x, dst, offset + r * stride, w);
+        }
+    }
+
+    @Override
+    public void setArgb(int x, int y, int w, int h, int[] src, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        for (int r = 0; r < h; ++r) {
+            System.arraycopy(src, offset + r * stride, argb, (y + r) * this.w + x, w);
+        }
+        damage(x, y, w, h);
+    }
+
+    @Override
+    public void getChannel(Channel channel, int x, int y, int w, int h, byte[] dst, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        int shift = shift(channel);
+        for (int r = 0; r < h; ++r) {
+            int i = (y + r) * this.w + x;
+            int o = offset + r * stride;
+            for (int c = 0; c < w; ++c) {
+                dst[o + c] = (byte) (argb[i + c] >> shift);
+            }
+        }
+    }
+
+    @Override
+    public void setChannel(Channel channel, int x, int y, int w, int h, byte[] src, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        int shift = shift(channel);
+        int mask = ~(0xff << shift);
+        for (int r = 0; r < h; ++r) {
+            int i = (y + r) * this.w + x;
+            int o = offset + r * stride;
+            for (int c = 0; c < w; ++c) {
+                argb[i + c] = argb[i + c] & mask | ((int) src[o + c] & 0xff) << shift;
+            }
+        }
+        damage(x, y, w, h);
+    }
+
+    @Override
+    public void copyRegion(Raster src, int srcX, int srcY, int x, int y, int w, int h) {
+        var clip = Region.clip(src, srcX, srcY, this, x, y, w, h);
+        if (clip == null) {
+            return;
+        }
+        for (int i = 0; i < clip.h(); ++i) {
+            int r = clip.row(i);
+            // straight into the backing array; for packed sources this is a single arraycopy per row
+            src.getArgb(clip.srcX(), clip.srcY() + r, clip.w(), 1, argb, (clip.y() + r) * this.w + clip.x(), clip.w());
+        }
+        damage(clip.x(), clip.y(), clip.w(), clip.h());
+    }
+
+    @Override
+    public PackedRaster scale(int w, int h) {
+        if (w < 1 || h < 1) {
+            throw new IllegalArgumentException();
+        }
+        double xScale = 1. * this.w / w;
+        double yScale = 1. * this.h / h;
+        var res = new int[w * h];
+        int i = 0;
+        for (int y = 0; y < h; ++y) {
+            int row = (int) (yScale * y) * this.w;
+            for (int x = 0; x < w; ++x) {
+                res[i++] = argb[row + (int) (xScale * x)];
+            }
+        }
+        return new PackedRaster(w, h, res);
+    }
+
+    @Override
+    public PackedRaster clone() {
+        return new PackedRaster(w, h, argb.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof PackedRaster that)) {
+            return false;
+        }
+        return w == that.w && h == that.h && Arrays.equals(argb, that.argb);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(w, h, Arrays.hashCode(argb));
+    }
+
+    public static PackedRaster ofArgb(int width, int height, Painter.IntImageSampler imageSampler) {
+        var res = new int[width * height];
+        int i = 0;
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                res[i] = imageSampler.apply(i, x, y);
+                ++i;
+            }
+        }
+        return new PackedRaster(width, height, res);
+    }
+
+    private static int shift(Channel channel) {
+        return switch (channel) {
+            case ALPHA -> 24;
+            case RED -> 16;
+            case GREEN -> 8;
+            case BLUE -> 0;
+        };
+    }
+
+    private byte[] plane(int shift) {
+        int n = w * h;
+        var res = new byte[n];
+        for (int i = 0; i < n; ++i) {
+            res[i] = (byte) (argb[i] >> shift);
+        }
+        return res;
+    }
+
+    private static int[] pack(Raster raster) {
+        if (raster instanceof PackedRaster packed) {
+            return packed.argb.clone();
+        }
+        return pack(raster.width() * raster.height(), raster.alpha(), raster.red(), raster.green(), raster.blue());
+    }
+
+    private static int[] pack(int n, byte[] a, byte[] r, byte[] g, byte[] b) {
+        var res = new int[n];
+        for (int i = 0; i < n; ++i) {
+            res[i] = ((int) a[i] & 0xff) << 24
+                    | ((int) r[i] & 0xff) << 16
+                    | ((int) g[i] & 0xff) << 8
+                    | (int) b[i] & 0xff;
+        }
+        return res;
+    }
+
+    private static int[] fill(int n, int argb) {
+        var res = new int[n];
+        Arrays.fill(res, argb);
+        return res;
+    }
+
+    private static int[] initInts(int width, int height, Painter.ImageSampler color) {
+        var res = new int[width * height];
+        int i = 0;
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                res[i] = color.apply(i, x, y).argbInt32();
+                ++i;
+            }
+        }
+        return res;
+    }
+}
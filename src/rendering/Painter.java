@@ -17,14 +17,25 @@ public interface Painter {
 
     void drawImg(int x, int y, int w, int h, ImageSampler sampler, BlendMode blendMode);
 
+    @FunctionalInterface
+    interface IntImageSampler {
+        int apply(int i, int x, int y);
+    }
+
+    void drawImgArgb(int x, int y, int w, int h, IntImageSampler sampler, BlendMode blendMode);
+
     default void drawImg(int x, int y, int w, int h, Color color, BlendMode blendMode) {
-        drawImg(x, y, w, h, (_, _, _) -> color, blendMode);
+        int argb = color.argbInt32();
+        drawImgArgb(x, y, w, h, (_, _, _) -> argb, blendMode);
     }
 
     default void drawImg(int x, int y, Raster raster, BlendMode blendMode) {
-        var rasterReadable = raster.<Color>read();
-        drawImg(x, y, raster.w(), raster.h(),
-                (_, _, _) -> rasterReadable.next(Raster.Reader.READ_COLOR), blendMode);
+        drawImgArgb(x, y, raster.w(), raster.h(), (i, _, _) -> raster.argbInt32(i), blendMode);
+    }
+
+    // draws the w x h region of raster starting at (srcX, srcY), with its top left corner at (x, y)
+    default void drawImg(int x, int y, Raster raster, int srcX, int srcY, int w, int h, BlendMode blendMode) {
+        drawImgArgb(x, y, w, h, (_, imgX, imgY) -> raster.argbInt32((srcY + imgY) * raster.w() + srcX + imgX), blendMode);
     }
 
     void drawTri(int x1, int y1, int x2, int y2, int x3, int y3, Color color, BlendMode blendMode);
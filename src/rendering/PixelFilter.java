@@ -1,30 +1,61 @@
 package rendering;
 
-import static rendering.Raster.Reader.READ_COLOR;
-
 public interface PixelFilter {
     Color apply(Color input);
 
+    default int applyArgb(int argb) {
+        return apply(Color.ArgbInt32Color.of(argb)).argbInt32();
+    }
+
     default RasterFilter asRasterFilter() {
+        return asRasterFilter(TileExecutor.SEQUENTIAL);
+    }
+
+    default RasterFilter asRasterFilter(TileExecutor executor) {
         return raster -> {
-            var inputReadable = raster.<Color>read();
             var res = raster.clone();
-            res.write((_, _, _) -> apply(inputReadable.next(READ_COLOR)));
+            int w = res.w();
+            executor.forEachBand(w, res.h(), (fromY, toY) -> {
+                var row = new int[w];
+                for (int y = fromY; y < toY; ++y) {
+                    res.getArgb(y, row);
+                    for (int x = 0; x < w; ++x) {
+                        row[x] = applyArgb(row[x]);
+                    }
+                    res.setArgb(y, row);
+                }
+            });
             return res;
         };
     }
 
-    PixelFilter NO_OP = i -> i;
+    // filters packed argb directly, without going through Color
+    @FunctionalInterface
+    interface IntPixelFilter extends PixelFilter {
+        @Override
+        int applyArgb(int argb);
+
+        @Override
+        default Color apply(Color input) {
+            return Color.ArgbInt32Color.of(applyArgb(input.argbInt32()));
+        }
+    }
+
+    IntPixelFilter NO_OP = argb -> argb;
 
-    static PixelFilter chromaKey(Color keyed) {
-        return input -> keyed.rgbInt24() == input.rgbInt24() ? Color.NamedColor.NONE : input;
+    static IntPixelFilter chromaKey(Color keyed) {
+        int key = keyed.rgbInt24();
+        int none = Color.NamedColor.NONE.argbInt32();
+        return argb -> key == (argb & 0xffffff) ? none : argb;
     }
 
-    static PixelFilter chromaMap(Color from, Color to) {
-        return input -> from.rgbInt24() == input.rgbInt24() ? to.withAlpha(input.alpha()) : input;
+    static IntPixelFilter chromaMap(Color from, Color to) {
+        int key = from.rgbInt24();
+        int mapped = to.rgbInt24();
+        return argb -> key == (argb & 0xffffff) ? argb & 0xff000000 | mapped : argb;
     }
 
-    static PixelFilter opacity(double opacity) {
-        return input -> input.withAlpha((byte) (opacity * ((int) input.alpha() & 0xff)));
+    static IntPixelFilter opacity(double opacity) {
+        return argb -> ((int) (opacity * (argb >>> 24)) & 0xff) << 24 | argb & 0xffffff;
     }
 }
@@ -131,6 +131,31 @@ public class PixelRaster implements Raster {
         };
     }
 
+    @Override
+    public void readArgb(int x, int y, int w, int h, IntReader reader) {
+        for (int r = Math.max(0, y); r < Math.min(y + h, this.h); ++r) {
+            int i = r * this.w + Math.max(0, x);
+            for (int c = Math.max(0, x); c < Math.min(x + w, this.w); ++c) {
+                reader.apply(c, r, argbInt32(i));
+                ++i;
+            }
+        }
+    }
+
+    @Override
+    public IntReadable readArgb() {
+        return new IntReadable() {
+            private int i = 0;
+
+            @Override
+            public int next(IntReader reader) {
+                int res = reader.apply(i % w, i / w, argbInt32(i));
+                ++i;
+                return res;
+            }
+        };
+    }
+
     @Override
     public void write(int x, int y, int w, int h, Writer writer) {
         int i = 0;
@@ -144,6 +169,21 @@ public class PixelRaster implements Raster {
                 ++i;
             }
         }
+        damage(x, y, w, h);
+    }
+
+    @Override
+    public void writeArgb(int x, int y, int w, int h, IntWriter writer) {
+        int n = 0;
+        for (int r = Math.max(0, y); r < Math.min(y + h, this.h); ++r) {
+            int i = r * this.w + Math.max(0, x);
+            for (int c = Math.max(0, x); c < Math.min(x + w, this.w); ++c) {
+                argbInt32(i, writer.write(n, c, r));
+                ++i;
+                ++n;
+            }
+        }
+        damage(x, y, w, h);
     }
 
     @Override
@@ -162,6 +202,89 @@ public class PixelRaster implements Raster {
         r[i] = (byte) (c >> 16);
         g[i] = (byte) (c >> 8);
         b[i] = (byte) c;
+        damage(x, y, 1, 1);
+    }
+
+    @Override
+    public int argbInt32(int i) {
+        return ((int) a[i] & 0xff) << 24
+                | ((int) r[i] & 0xff) << 16
+                | ((int) g[i] & 0xff) << 8
+                | (int) b[i] & 0xff;
+    }
+
+    @Override
+    public void argbInt32(int i, int argb) {
+        a[i] = (byte) (argb >> 24);
+        r[i] = (byte) (argb >> 16);
+        g[i] = (byte) (argb >> 8);
+        b[i] = (byte) argb;
+    }
+
+    @Override
+    public void getArgb(int x, int y, int w, int h, int[] dst, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        for (int r = 0; r < h; ++r) {
+            int i = (y + r) * this.w + x;
+            int o = offset + r * stride;
+            for (int c = 0; c < w; ++c) {
+                dst[o + c] = argbInt32(i + c);
+            }
+        }
+    }
+
+    @Override
+    public void setArgb(int x, int y, int w, int h, int[] src, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        for (int r = 0; r < h; ++r) {
+            int i = (y + r) * this.w + x;
+            int o = offset + r * stride;
+            for (int c = 0; c < w; ++c) {
+                argbInt32(i + c, src[o + c]);
+            }
+        }
+        damage(x, y, w, h);
+    }
+
+    @Override
+    public void getChannel(Channel channel, int x, int y, int w, int h, byte[] dst, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        var plane = plane(channel);
+        for (int r = 0; r < h; ++r) {
+            System.arraycopy(plane, (y + r) * this.w + x, dst, offset + r * stride, w);
+        }
+    }
+
+    @Override
+    public void setChannel(Channel channel, int x, int y, int w, int h, byte[] src, int offset, int stride) {
+        Region.check(this, x, y, w, h);
+        var plane = plane(channel);
+        for (int r = 0; r < h; ++r) {
+            System.arraycopy(src, offset + r * stride, plane, (y + r) * this.w + x, w);
+        }
+        damage(x, y, w, h);
+    }
+
+    @Override
+    public void copyRegion(Raster src, int srcX, int srcY, int x, int y, int w, int h) {
+        if (!(src instanceof PixelRaster that)) {
+            Raster.super.copyRegion(src, srcX, srcY, x, y, w, h);
+            return;
+        }
+        var clip = Region.clip(src, srcX, srcY, this, x, y, w, h);
+        if (clip == null) {
+            return;
+        }
+        for (int i = 0; i < clip.h(); ++i) {
+            int r = clip.row(i);
+            int from = (clip.srcY() + r) * that.w + clip.srcX();
+            int to = (clip.y() + r) * this.w + clip.x();
+            System.arraycopy(that.a, from, this.a, to, clip.w());
+            System.arraycopy(that.r, from, this.r, to, clip.w());
+            System.arraycopy(that.g, from, this.g, to, clip.w());
+            System.arraycopy(that.b, from, this.b, to, clip.w());
+        }
+        damage(clip.x(), clip.y(), clip.w(), clip.h());
     }
 
     @Override
@@ -199,6 +322,22 @@ public class PixelRaster implements Raster {
         return Objects.hash(w, h, Arrays.hashCode(a), Arrays.hashCode(r), Arrays.hashCode(g), Arrays.hashCode(b));
     }
 
+    public static PixelRaster ofArgb(int width, int height, Painter.IntImageSampler imageSampler) {
+        var res = new byte[4][width * height];
+        int i = 0;
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int c = imageSampler.apply(i, x, y);
+                res[0][i] = (byte) (c >> 24);  // alpha
+                res[1][i] = (byte) (c >> 16);  // red
+                res[2][i] = (byte) (c >> 8);  // green
+                res[3][i] = (byte) c;  // blue
+                ++i;
+            }
+        }
+        return new PixelRaster(width, height, res);
+    }
+
     private static byte[][] initBytes(int width, int height, Painter.ImageSampler color) {
         var res = new byte[4][width * height];
         int i = 0;
@@ -215,6 +354,15 @@ public class PixelRaster implements Raster {
         return res;
     }
 
+    private byte[] plane(Channel channel) {
+        return switch (channel) {
+            case ALPHA -> a;
+            case RED -> r;
+            case GREEN -> g;
+            case BLUE -> b;
+        };
+    }
+
     private static byte[] cloneBytes(byte[] bytes) {
         int n = bytes.length;
         var res = new byte[n];
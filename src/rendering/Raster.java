@@ -1,5 +1,7 @@
 package rendering;
 
+import java.util.Optional;
+
 public interface Raster {
     int width();
 
@@ -61,6 +63,26 @@ public interface Raster {
 
     <T> Readable<T> read();
 
+    @FunctionalInterface
+    interface IntReader {
+        int apply(int x, int y, int argb);
+
+        IntReader READ_ARGB = (_, _, argb) -> argb;
+    }
+
+    void readArgb(int x, int y, int w, int h, IntReader reader);
+
+    default void readArgb(IntReader reader) {
+        readArgb(0, 0, w(), h(), reader);
+    }
+
+    @FunctionalInterface
+    interface IntReadable {
+        int next(IntReader reader);
+    }
+
+    IntReadable readArgb();
+
     @FunctionalInterface
     interface Writer {
         Color write(int i, int x, int y);
@@ -76,10 +98,130 @@ public interface Raster {
 
     void write(int x, int y, int w, int h, Writer writer);
 
+    @FunctionalInterface
+    interface IntWriter {
+        int write(int i, int x, int y);
+    }
+
+    default void writeArgb(IntWriter writer) {
+        writeArgb(0, 0, w(), h(), writer);
+    }
+
+    void writeArgb(int x, int y, int w, int h, IntWriter writer);
+
     Color pixel(int x, int y);
 
     void pixel(int x, int y, Color color);
 
+    // index-based access to a single pixel as packed argb; i = y * w + x. unlike the other writes, the setter doesn't
+    // report damage; callers writing pixels one at a time should report the area they touched themselves.
+    int argbInt32(int i);
+
+    void argbInt32(int i, int argb);
+
+    enum Channel {
+        ALPHA,
+        RED,
+        GREEN,
+        BLUE
+    }
+
+    // bulk span access; the region must lie within the raster. row r of the region maps to
+    // buf[offset + r * stride, offset + r * stride + w)
+    void getArgb(int x, int y, int w, int h, int[] dst, int offset, int stride);
+
+    void setArgb(int x, int y, int w, int h, int[] src, int offset, int stride);
+
+    void getChannel(Channel channel, int x, int y, int w, int h, byte[] dst, int offset, int stride);
+
+    void setChannel(Channel channel, int x, int y, int w, int h, byte[] src, int offset, int stride);
+
+    // where writes to this raster get recorded, if anywhere
+    default Optional<Damage> damage() {
+        return Optional.empty();
+    }
+
+    default void damage(int x, int y, int w, int h) {
+        var damage = damage();
+        if (damage.isPresent()) {
+            damage.get().add(x, y, w, h);
+        }
+    }
+
+    default void getArgb(int y, int[] dst) {
+        getArgb(0, y, w(), 1, dst, 0, w());
+    }
+
+    default void setArgb(int y, int[] src) {
+        setArgb(0, y, w(), 1, src, 0, w());
+    }
+
+    // blits a w x h region of src at [srcX, srcY] into this raster at [x, y], clipped to both rasters
+    default void copyRegion(Raster src, int srcX, int srcY, int x, int y, int w, int h) {
+        var clip = Region.clip(src, srcX, srcY, this, x, y, w, h);
+        if (clip == null) {
+            return;
+        }
+        var row = new int[clip.w()];
+        for (int i = 0; i < clip.h(); ++i) {
+            int r = clip.row(i);
+            src.getArgb(clip.srcX(), clip.srcY() + r, clip.w(), 1, row, 0, clip.w());
+            setArgb(clip.x(), clip.y() + r, clip.w(), 1, row, 0, clip.w());
+        }
+    }
+
+    static void copyRegion(Raster src, int srcX, int srcY, Raster dst, int dstX, int dstY, int w, int h) {
+        dst.copyRegion(src, srcX, srcY, dstX, dstY, w, h);
+    }
+
+    record Region(int srcX, int srcY, int x, int y, int w, int h, boolean bottomUp) {
+        static Region clip(Raster src, int srcX, int srcY, Raster dst, int x, int y, int w, int h) {
+            // clip against the source
+            if (srcX < 0) {
+                x -= srcX;
+                w += srcX;
+                srcX = 0;
+            }
+            if (srcY < 0) {
+                y -= srcY;
+                h += srcY;
+                srcY = 0;
+            }
+            w = Math.min(w, src.w() - srcX);
+            h = Math.min(h, src.h() - srcY);
+            // clip against the destination
+            if (x < 0) {
+                srcX -= x;
+                w += x;
+                x = 0;
+            }
+            if (y < 0) {
+                srcY -= y;
+                h += y;
+                y = 0;
+            }
+            w = Math.min(w, dst.w() - x);
+            h = Math.min(h, dst.h() - y);
+            if (w <= 0 || h <= 0) {
+                return null;
+            }
+            // copying within one raster downwards must go bottom-up to not clobber rows not yet copied
+            return new Region(srcX, srcY, x, y, w, h, src == dst && y > srcY);
+        }
+
+        // the i-th row to copy, relative to the top of the region
+        int row(int i) {
+            return bottomUp ? h - 1 - i : i;
+        }
+
+        static void check(Raster raster, int x, int y, int w, int h) {
+            if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > raster.w() || y + h > raster.h()) {
+                throw new IndexOutOfBoundsException("Region [x=%d, y=%d, w=%d, h=%d] out of bounds for [w=%d, h=%d]"
+                        .formatted(x, y, w, h, raster.w(), raster.h()));
+            }
+        }
+    }
+
     Raster scale(int width, int height);
 
     Raster clone();
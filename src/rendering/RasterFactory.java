@@ -0,0 +1,81 @@
+package rendering;
+
+public interface RasterFactory {
+    Raster create(int width, int height, Painter.ImageSampler imageSampler);
+
+    Raster createArgb(int width, int height, Painter.IntImageSampler imageSampler);
+
+    Raster create(int width, int height, byte[] alpha, byte[] red, byte[] green, byte[] blue);
+
+    Raster convert(Raster raster);
+
+    default Raster create(int width, int height) {
+        return create(width, height, Color.NamedColor.NONE);
+    }
+
+    default Raster create(int width, int height, Color color) {
+        int argb = color.argbInt32();
+        return createArgb(width, height, (_, _, _) -> argb);
+    }
+
+    // four byte[] planes; a, r, g, b
+    RasterFactory PLANAR = new RasterFactory() {
+        @Override
+        public Raster create(int width, int height, Painter.ImageSampler imageSampler) {
+            return new PixelRaster(width, height, imageSampler);
+        }
+
+        @Override
+        public Raster createArgb(int width, int height, Painter.IntImageSampler imageSampler) {
+            return PixelRaster.ofArgb(width, height, imageSampler);
+        }
+
+        @Override
+        public Raster create(int width, int height, byte[] alpha, byte[] red, byte[] green, byte[] blue) {
+            return new PixelRaster(width, height, alpha, red, green, blue);
+        }
+
+        @Override
+        public Raster convert(Raster raster) {
+            return raster instanceof PixelRaster ? raster : new PixelRaster(raster);
+        }
+
+        @Override
+        public String toString() {
+            return "PLANAR";
+        }
+    };
+
+    // one int[] of packed argb
+    RasterFactory PACKED = new RasterFactory() {
+        @Override
+        public Raster create(int width, int height, Painter.ImageSampler imageSampler) {
+            return new PackedRaster(width, height, imageSampler);
+        }
+
+        @Override
+        public Raster createArgb(int width, int height, Painter.IntImageSampler imageSampler) {
+            return PackedRaster.ofArgb(width, height, imageSampler);
+        }
+
+        @Override
+        public Raster create(int width, int height, byte[] alpha, byte[] red, byte[] green, byte[] blue) {
+            return new PackedRaster(width, height, alpha, red, green, blue);
+        }
+
+        @Override
+        public Raster convert(Raster raster) {
+            return raster instanceof PackedRaster ? raster : new PackedRaster(raster);
+        }
+
+        @Override
+        public Raster create(int width, int height, Color color) {
+            return new PackedRaster(width, height, color);
+        }
+
+        @Override
+        public String toString() {
+            return "PACKED";
+        }
+    };
+}
@@ -0,0 +1,28 @@
+package rendering;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// a RasterRepository load or save, including (de)serialization
+@Name("engine.RasterIo")
+@Label("Raster I/O")
+@Category({"Game Engine", "I/O"})
+@Enabled(false)
+class RasterIoEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Success")
+    boolean success;
+}
@@ -2,6 +2,8 @@ package rendering;
 
 public class RasterPainter implements Painter {
     private final Raster raster;
+    private int[] fgRow = new int[0];
+    private int[] bgRow = new int[0];
 
     public RasterPainter(Raster raster) {
         this.raster = raster;
@@ -10,6 +12,7 @@ public class RasterPainter implements Painter {
     @Override
     public void drawPoint(int x, int y, Color color, BlendMode blendMode) {
         fastDrawPoint(y * raster.w() + x, color, blendMode);
+        raster.damage(x, y, 1, 1);
     }
 
     @Override
@@ -44,7 +47,7 @@ public class RasterPainter implements Painter {
                 // rounding might be more accurate, but maybe slower
                 var color = sampler.apply(n++, length, progress);
                 if (x >= 0 && x < raster.width() && y >= 0 && y < raster.height()) {
-                    raster.pixel((int) x, y, color);
+                    raster.argbInt32(y * raster.w() + (int) x, color.argbInt32());
                 }
                 x += slope;
                 progress += progressionRate;
@@ -70,33 +73,90 @@ public class RasterPainter implements Painter {
             for (int x = startX; x < endX; ++x) {
                 var color = sampler.apply(n++, length, progress);
                 if (x >= 0 && x < raster.width() && y >= 0 && y < raster.height()) {
-                    raster.pixel(x, (int) y, color);
+                    raster.argbInt32((int) y * raster.w() + x, color.argbInt32());
                 }
                 y += slope;
                 progress += progressionRate;
             }
         }
+        raster.damage(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1) + 1, Math.abs(y2 - y1) + 1);
     }
 
     @Override
     public void drawImg(final int x, final int y, final int w, final int h, ImageSampler sampler, BlendMode blendMode) {
+        drawImgArgb(x, y, w, h, (i, imgX, imgY) -> sampler.apply(i, imgX, imgY).argbInt32(), blendMode);
+    }
+
+    @Override
+    public void drawImgArgb(final int x, final int y, final int w, final int h,
+                            IntImageSampler sampler, BlendMode blendMode) {
         int imgMinX = x < 0 ? -x : 0;
         int imgMinY = y < 0 ? -y : 0;
         int imgMaxX = w - Math.max(0, x + w - this.raster.width());
         int imgMaxY = h - Math.max(0, y + h - this.raster.height());
         int imgVisibleWidth = imgMaxX - imgMinX;
-        int myStride = this.raster.width() - imgVisibleWidth;
-        int imgStride = w - imgVisibleWidth;
-        int myI = Math.max(0, y) * this.raster.width() + Math.max(0, x);
-        int imgI = imgMinY * w + imgMinX;
+        if (imgVisibleWidth <= 0) {
+            return;
+        }
+        ensureRows(imgVisibleWidth);
+        // sample a row at a time, then blend the whole row as a span
         for (int imgY = imgMinY; imgY < imgMaxY; ++imgY) {
-            for (int imgX = imgMinX; imgX < imgMaxX; ++imgX) {
-                fastDrawPoint(myI, sampler.apply(imgI, imgX, imgY), blendMode);
-                ++myI;
-                ++imgI;
+            int imgI = imgY * w + imgMinX;
+            for (int c = 0; c < imgVisibleWidth; ++c) {
+                fgRow[c] = sampler.apply(imgI + c, imgMinX + c, imgY);
+            }
+            blendRow(fgRow, 0, x + imgMinX, y + imgY, imgVisibleWidth, blendMode);
+        }
+        raster.damage(x + imgMinX, y + imgMinY, imgVisibleWidth, imgMaxY - imgMinY);
+    }
+
+    @Override
+    public void drawImg(int x, int y, Raster img, BlendMode blendMode) {
+        drawImg(x, y, img, 0, 0, img.w(), img.h(), blendMode);
+    }
+
+    @Override
+    public void drawImg(int x, int y, Raster img, int srcX, int srcY, int w, int h, BlendMode blendMode) {
+        if (blendMode == BlendMode.NORMAL) {
+            raster.copyRegion(img, srcX, srcY, x, y, w, h);
+            return;
+        }
+        var clip = Raster.Region.clip(img, srcX, srcY, raster, x, y, w, h);
+        if (clip == null) {
+            return;
+        }
+        int clipW = clip.w();
+        ensureRows(clipW);
+        for (int r = 0; r < clip.h(); ++r) {
+            int imgI = (clip.srcY() + r) * img.w() + clip.srcX();
+            if (img instanceof PixelRaster planarImg && raster instanceof PixelRaster planar) {
+                blendMode.applyPlanar(planarImg, imgI, planar, (clip.y() + r) * raster.w() + clip.x(), clipW);
+            } else if (img instanceof PackedRaster packedImg) {
+                blendRow(packedImg.data(), imgI, clip.x(), clip.y() + r, clipW, blendMode);
+            } else {
+                img.getArgb(clip.srcX(), clip.srcY() + r, clipW, 1, fgRow, 0, clipW);
+                blendRow(fgRow, 0, clip.x(), clip.y() + r, clipW, blendMode);
             }
-            myI += myStride;
-            imgI += imgStride;
+        }
+        raster.damage(clip.x(), clip.y(), clip.w(), clip.h());
+    }
+
+    // blends w packed pixels from fg onto the raster row starting at (x, y), which must be in bounds
+    private void blendRow(int[] fg, int fgOffset, int x, int y, int w, BlendMode blendMode) {
+        if (raster instanceof PackedRaster packed) {
+            // blend in place, skipping the round trip through the row buffer
+            blendMode.applyArgb(fg, fgOffset, packed.data(), y * raster.w() + x, w);
+        } else {
+            raster.getArgb(x, y, w, 1, bgRow, 0, w);
+            blendMode.applyArgb(fg, fgOffset, bgRow, 0, w);
+            raster.setArgb(x, y, w, 1, bgRow, 0, w);
+        }
+    }
+
+    private void ensureRows(int w) {
+        if (fgRow.length < w) {
+            fgRow = new int[w];
+            bgRow = new int[w];
         }
     }
 
@@ -106,16 +166,11 @@ public class RasterPainter implements Painter {
     }
 
     private void fastDrawPoint(int i, Color fg, BlendMode blendMode) {
-        var bgA = raster.a()[i];
-        var bgR = raster.r()[i];
-        var bgG = raster.g()[i];
-        var bgB = raster.b()[i];
-        var bg = Color.ArgbInt32Color.of(bgA, bgR, bgG, bgB);
-        var blended = blendMode.apply(fg, bg);
-        raster.a()[i] = blended.a();
-        raster.r()[i] = blended.r();
-        raster.g()[i] = blended.g();
-        raster.b()[i] = blended.b();
+        fastDrawPoint(i, fg.argbInt32(), blendMode);
+    }
+
+    private void fastDrawPoint(int i, int fg, BlendMode blendMode) {
+        raster.argbInt32(i, blendMode.applyArgb(fg, raster.argbInt32(i)));
     }
 
 //    private void fastDrawPoint(int i, Color c) {
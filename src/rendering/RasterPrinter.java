@@ -3,19 +3,28 @@ package rendering;
 import static rendering.Color.NamedColor;
 
 public class RasterPrinter implements Printer {
-    private final Painter painter;
+    private final Painter       painter;
     // TODO bezier fonts
-    private final Font    font;
+    private final Font          font;
+    private final GlyphCache    glyphs;
+    // glyphs in the raster's own layout blit without conversion
+    private final RasterFactory glyphFactory;
 
     public RasterPrinter(Raster raster, Font font) {
+        this(raster, font, GlyphCache.SHARED);
+    }
+
+    public RasterPrinter(Raster raster, Font font, GlyphCache glyphs) {
         this.painter = new RasterPainter(raster);
         this.font = font;
+        this.glyphs = glyphs;
+        this.glyphFactory = raster instanceof PixelRaster ? RasterFactory.PLANAR : RasterFactory.PACKED;
     }
 
     @Override
     public void print(char c, int x, int y, Style... styles) {
-        var blendMode = rendering.BlendMode.OVER_PRE;
-        var color = (rendering.Color) NamedColor.WHITE;
+        rendering.BlendMode blendMode = rendering.BlendMode.OVER_PRE;
+        rendering.Color color = NamedColor.WHITE;
         int size = font.size();
         for (Style style : styles) {
             switch (style) {
@@ -25,10 +34,8 @@ public class RasterPrinter implements Printer {
                 case Spacing _ -> {}
             }
         }
-        var asset = font.getChar(Character.toLowerCase(c));  // todo add uppercase
-        asset = PixelFilter.chromaMap(NamedColor.BLACK, color).asRasterFilter().apply(asset);
-        var scaled = asset.scale(size, size);
-        painter.drawImg(x, y, scaled, blendMode);
+        // todo add uppercase
+        painter.drawImg(x, y, glyphs.get(font, Character.toLowerCase(c), color, size, glyphFactory), blendMode);
     }
 
     @Override
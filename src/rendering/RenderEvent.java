@@ -0,0 +1,20 @@
+package rendering;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one delegate of a CompositeRenderer rendering one frame
+@Name("engine.Render")
+@Label("Render")
+@Category({"Game Engine", "Rendering"})
+@Enabled(false)
+class RenderEvent extends Event {
+    @Label("Renderer")
+    String renderer;
+
+    @Label("Clip")
+    String clip;
+}
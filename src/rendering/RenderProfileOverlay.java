@@ -0,0 +1,30 @@
+package rendering;
+
+import static rendering.Printer.Size;
+
+// prints a RenderProfiler's timings over the top-left of the raster. it always draws the whole table, so a composite
+// containing it redraws the full surface every frame.
+public class RenderProfileOverlay implements Renderer {
+    private static final int SIZE = 8;
+
+    private final Printer        printer;
+    private final RenderProfiler profiler;
+
+    public RenderProfileOverlay(Raster raster, Font font, RenderProfiler profiler) {
+        this.printer = new RasterPrinter(raster, font);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void render() {
+        int y = SIZE;
+        printer.print("renderer          p50    p95    p99    max ms   alloc", SIZE, y, Size.of(SIZE));
+        for (var timing : profiler.timings()) {
+            y += SIZE + 2;
+            var nanos = timing.nanos();
+            printer.print("%-14s %6.2f %6.2f %6.2f %6.2f    %s".formatted(timing.renderer(),
+                    nanos.p50() / 1e6, nanos.p95() / 1e6, nanos.p99() / 1e6, nanos.max() / 1e6,
+                    timing.allocatedBytes() < 0 ? "-" : timing.allocatedBytes() / 1024 + "kb"), SIZE, y, Size.of(SIZE));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package rendering;
+
+import timing.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// times every delegate of a CompositeRenderer, frame by frame. timings are published in windows of WINDOW frames,
+// so readers see stable numbers rather than ones that change under them. recording never allocates.
+public class RenderProfiler {
+    private static final int WINDOW = 120;
+
+    // nanos spans one render of the renderer; allocatedBytes is the mean per render, or -1 when not tracked
+    public record Timing(String renderer, Histogram.Snapshot nanos, long allocatedBytes) {
+    }
+
+    private final com.sun.management.ThreadMXBean threads;
+
+    private          String[]     names;
+    private          Histogram[]  histograms;
+    private          long[]       allocated;
+    private          long         frameStart;
+    private          long         frameStartBytes;
+    private          long         spanStart;
+    private          long         spanStartBytes;
+    private          int          frames  = 0;
+    private volatile List<Timing> timings = List.of();
+
+    public RenderProfiler() {
+        this(false);
+    }
+
+    // allocation tracking reads the render thread's allocation counter around every delegate; it's not free
+    public RenderProfiler(boolean trackAllocations) {
+        this.threads = trackAllocations
+                && ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()
+                ? bean
+                : null;
+        if (threads != null) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    // timings of the last full window, one per delegate in render order and then the whole frame
+    public List<Timing> timings() {
+        return timings;
+    }
+
+    synchronized void register(Collection<Renderer> delegates) {
+        if (names != null) {
+            throw new IllegalArgumentException("Profiler is already registered with a renderer");
+        }
+        var labels = new ArrayList<String>();
+        delegates.forEach(delegate -> labels.add(delegate.getClass().getSimpleName()));
+        labels.add("frame");
+        this.names = labels.toArray(String[]::new);
+        this.histograms = new Histogram[names.length];
+        for (int i = 0; i < histograms.length; ++i) {
+            histograms[i] = new Histogram();
+        }
+        this.allocated = new long[names.length];
+    }
+
+    void beginFrame() {
+        frameStartBytes = allocatedBytes();
+        frameStart = System.nanoTime();
+    }
+
+    void beginRender() {
+        spanStartBytes = allocatedBytes();
+        spanStart = System.nanoTime();
+    }
+
+    void endRender(int delegate) {
+        histograms[delegate].record(System.nanoTime() - spanStart);
+        allocated[delegate] += allocatedBytes() - spanStartBytes;
+    }
+
+    void endFrame() {
+        int frame = names.length - 1;
+        histograms[frame].record(System.nanoTime() - frameStart);
+        allocated[frame] += allocatedBytes() - frameStartBytes;
+        if (++frames < WINDOW) {
+            return;
+        }
+        var timings = new ArrayList<Timing>(names.length);
+        for (int i = 0; i < names.length; ++i) {
+            timings.add(new Timing(names[i], histograms[i].snapshot(), threads == null ? -1 : allocated[i] / frames));
+            histograms[i].reset();
+            allocated[i] = 0;
+        }
+        this.timings = List.copyOf(timings);
+        frames = 0;
+    }
+
+    private long allocatedBytes() {
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+}
@@ -1,5 +1,24 @@
 package rendering;
 
+import java.util.Optional;
+
 public interface Renderer {
     void render();
+
+    // renders only what falls inside clip. renderers that can't restrict themselves draw everything, which
+    // supportsClip() tells callers about.
+    default void render(Damage.Rect clip) {
+        render();
+    }
+
+    default boolean supportsClip() {
+        return false;
+    }
+
+    // renderers that draw the same thing every frame return the raster they draw into. a composite renders a leading
+    // run of them once and copies the result back on later frames, so the run should start with one that overwrites
+    // its target, like Eraser.
+    default Optional<Raster> staticTarget() {
+        return Optional.empty();
+    }
 }
@@ -8,9 +8,17 @@ import java.io.IOException;
 import java.io.InputStream;
 
 public class RgbSerializer implements RasterSerializer {
-    public static final RgbSerializer INSTANCE = new RgbSerializer();
+    public static final RgbSerializer INSTANCE = new RgbSerializer(RasterFactory.PLANAR);
 
-    private RgbSerializer() {}
+    private final RasterFactory rasterFactory;
+
+    private RgbSerializer(RasterFactory rasterFactory) {
+        this.rasterFactory = rasterFactory;
+    }
+
+    public static RgbSerializer of(RasterFactory rasterFactory) {
+        return RasterFactory.PLANAR == rasterFactory ? INSTANCE : new RgbSerializer(rasterFactory);
+    }
 
     @Override
     public Result<byte[], Exception> serialize(Raster raster) {
@@ -62,13 +70,14 @@ public class RgbSerializer implements RasterSerializer {
     private static byte[] toBytes(Raster raster) {
         int n = raster.w() * raster.h();
         var buf = new byte[n * 3];
+        var a = raster.alpha();
         var r = raster.red();
         var g = raster.green();
         var b = raster.blue();
         int bufI = 0;
         for (int i = 0; i < n; ++i) {
             // this method is lossy
-            var alpha = ((int) raster.alpha()[i] & 0xff) / 255.;
+            var alpha = ((int) a[i] & 0xff) / 255.;
             buf[bufI++] = (byte) (alpha * ((int) r[i] & 0xff));
             buf[bufI++] = (byte) (alpha * ((int) g[i] & 0xff));
             buf[bufI++] = (byte) (alpha * ((int) b[i] & 0xff));
@@ -76,7 +85,7 @@ public class RgbSerializer implements RasterSerializer {
         return buf;
     }
 
-    private static PixelRaster toRaster(int w, int h, byte[] buf) {
+    private Raster toRaster(int w, int h, byte[] buf) {
         int n = w * h;
         var a = new byte[n];
         var r = new byte[n];
@@ -89,7 +98,7 @@ public class RgbSerializer implements RasterSerializer {
             g[i] = buf[px++];
             b[i] = buf[px++];
         }
-        return new PixelRaster(w, h, a, r, g, b);
+        return rasterFactory.create(w, h, a, r, g, b);
     }
 
     private Result<Integer, Exception> readInt(InputStream inputStream) {
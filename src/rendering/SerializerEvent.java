@@ -0,0 +1,28 @@
+package rendering;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one RasterSerializer encoding or decoding a raster; a chain records one per serializer it tries
+@Name("engine.Serializer")
+@Label("Raster Serializer")
+@Category({"Game Engine", "I/O"})
+@Enabled(false)
+class SerializerEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Serializer")
+    String serializer;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Success")
+    boolean success;
+}
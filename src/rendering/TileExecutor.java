@@ -0,0 +1,117 @@
+package rendering;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// splits whole-raster work into row bands and runs them on a fork/join pool. bands never get smaller than
+// minTileSize pixels, so small rasters (glyphs, icons) stay on the calling thread.
+public class TileExecutor {
+    private static final int DEFAULT_MIN_TILE_SIZE = 64 * 64;
+
+    public static final TileExecutor SEQUENTIAL = new TileExecutor(null, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int          minTileSize;
+
+    private TileExecutor(ForkJoinPool pool, int minTileSize) {
+        this.pool = pool;
+        this.minTileSize = minTileSize;
+    }
+
+    @FunctionalInterface
+    public interface Band {
+        void run(int fromY, int toY);
+    }
+
+    // runs band over [0, height) in disjoint row ranges, possibly concurrently
+    public void forEachBand(int width, int height, Band band) {
+        int minRows = Math.max(1, minTileSize / Math.max(1, width));
+        if (pool == null || height / 2 < minRows) {
+            band.run(0, height);
+            return;
+        }
+        pool.invoke(new Split(band, 0, height, minRows));
+    }
+
+    // runs body for every index in [0, count), each one a task of its own
+    public void forEach(int count, IntConsumer body) {
+        Band band = (from, to) -> {
+            for (int i = from; i < to; ++i) {
+                body.accept(i);
+            }
+        };
+        if (pool == null || count <= 1) {
+            band.run(0, count);
+            return;
+        }
+        pool.invoke(new Split(band, 0, count, 1));
+    }
+
+    public int parallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    @Override
+    public String toString() {
+        return pool == null ? "SEQUENTIAL" : "TileExecutor[parallelism=%d, minTileSize=%d]".formatted(
+                pool.getParallelism(), minTileSize);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private ForkJoinPool pool;
+        private int          minTileSize = DEFAULT_MIN_TILE_SIZE;
+
+        private Builder() {}
+
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        public Builder minTileSize(int pixels) {
+            if (pixels < 1) {
+                throw new IllegalArgumentException("Min tile size must be a positive integer");
+            }
+            this.minTileSize = pixels;
+            return this;
+        }
+
+        public TileExecutor build() {
+            if (pool == null) {
+                pool = ForkJoinPool.commonPool();
+            }
+            return new TileExecutor(pool, minTileSize);
+        }
+    }
+
+    // never serialized
+    @SuppressWarnings("serial")
+    private static class Split extends RecursiveAction {
+        private final Band band;
+        private final int  from;
+        private final int  to;
+        private final int  grain;
+
+        private Split(Band band, int from, int to, int grain) {
+            this.band = band;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if ((to - from) / 2 < grain) {
+                band.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Split(band, from, mid, grain), new Split(band, mid, to, grain));
+        }
+    }
+}
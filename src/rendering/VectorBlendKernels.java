@@ -0,0 +1,153 @@
+package rendering;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// vectorized counterparts of the scalar blend modes. every lane performs the same double operations in the same order
+// as the scalar code, so results are bit-identical. only loaded when BlendKernels.VECTORIZED is set.
+final class VectorBlendKernels {
+    private static final VectorSpecies<Double>  DOUBLES = DoubleVector.SPECIES_PREFERRED.length() >= 2
+            ? DoubleVector.SPECIES_PREFERRED
+            : DoubleVector.SPECIES_128;
+    // one int lane per double lane
+    private static final VectorSpecies<Integer> INTS    = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(DOUBLES.length() * Integer.SIZE));
+    // planar channels are loaded 8 at a time and widened in PARTS slices of INTS
+    private static final VectorSpecies<Byte>    BYTES   = ByteVector.SPECIES_64;
+    private static final int                    PARTS   = BYTES.length() / INTS.length();
+    private static final double                 ONE_OVER_255 = 1 / 255.;
+
+    private VectorBlendKernels() {
+    }
+
+    // blends as many whole vectors as fit in length, returning how many pixels were blended
+    static int blendPacked(BlendKernels.Op op, int[] fg, int fgOffset, int[] bg, int bgOffset, int length) {
+        int bound = INTS.loopBound(length);
+        for (int i = 0; i < bound; i += INTS.length()) {
+            var res = blend(op,
+                    unpack(IntVector.fromArray(INTS, fg, fgOffset + i)),
+                    unpack(IntVector.fromArray(INTS, bg, bgOffset + i)));
+            res.a().lanewise(VectorOperators.LSHL, 24)
+                    .or(res.r().lanewise(VectorOperators.LSHL, 16))
+                    .or(res.g().lanewise(VectorOperators.LSHL, 8))
+                    .or(res.b())
+                    .intoArray(bg, bgOffset + i);
+        }
+        return bound;
+    }
+
+    static int blendPlanar(BlendKernels.Op op, PixelRaster fg, int fgOffset, PixelRaster bg, int bgOffset, int length) {
+        byte[] bgA = bg.alpha(), bgR = bg.red(), bgG = bg.green(), bgB = bg.blue();
+        int bound = BYTES.loopBound(length);
+        for (int i = 0; i < bound; i += BYTES.length()) {
+            int fgI = fgOffset + i;
+            int bgI = bgOffset + i;
+            var fgAV = ByteVector.fromArray(BYTES, fg.alpha(), fgI);
+            var fgRV = ByteVector.fromArray(BYTES, fg.red(), fgI);
+            var fgGV = ByteVector.fromArray(BYTES, fg.green(), fgI);
+            var fgBV = ByteVector.fromArray(BYTES, fg.blue(), fgI);
+            var bgAV = ByteVector.fromArray(BYTES, bgA, bgI);
+            var bgRV = ByteVector.fromArray(BYTES, bgR, bgI);
+            var bgGV = ByteVector.fromArray(BYTES, bgG, bgI);
+            var bgBV = ByteVector.fromArray(BYTES, bgB, bgI);
+            var a = ByteVector.zero(BYTES);
+            var r = ByteVector.zero(BYTES);
+            var g = ByteVector.zero(BYTES);
+            var b = ByteVector.zero(BYTES);
+            for (int part = 0; part < PARTS; ++part) {
+                var res = blend(op,
+                        widen(fgAV, fgRV, fgGV, fgBV, part),
+                        widen(bgAV, bgRV, bgGV, bgBV, part));
+                a = a.or(narrow(res.a(), part));
+                r = r.or(narrow(res.r(), part));
+                g = g.or(narrow(res.g(), part));
+                b = b.or(narrow(res.b(), part));
+            }
+            a.intoArray(bgA, bgI);
+            r.intoArray(bgR, bgI);
+            g.intoArray(bgG, bgI);
+            b.intoArray(bgB, bgI);
+        }
+        return bound;
+    }
+
+    // channels in [0, 1], plus the raw alpha for modes that pass it through untouched
+    private record Channels(IntVector rawA, DoubleVector a, DoubleVector r, DoubleVector g, DoubleVector b) {
+    }
+
+    private record Argb(IntVector a, IntVector r, IntVector g, IntVector b) {
+    }
+
+    private static Argb blend(BlendKernels.Op op, Channels fg, Channels bg) {
+        return switch (op) {
+            case OVER_STRAIGHT -> overStraight(fg, bg);
+            case OVER_PRE -> overPre(fg, bg);
+            case SUBTRACT -> subtract(fg, bg);
+        };
+    }
+
+    private static Argb overStraight(Channels fg, Channels bg) {
+        var oneMinusFgA = DoubleVector.broadcast(DOUBLES, 1.).sub(fg.a());
+        return new Argb(
+                dToI(fg.a().add(bg.a().mul(oneMinusFgA))),
+                dToI(fg.r().mul(fg.a()).add(bg.r().mul(bg.a()).mul(oneMinusFgA)).div(fg.a())),
+                dToI(fg.g().mul(fg.a()).add(bg.g().mul(bg.a()).mul(oneMinusFgA)).div(fg.a())),
+                dToI(fg.b().mul(fg.a()).add(bg.b().mul(bg.a()).mul(oneMinusFgA)).div(fg.a())));
+    }
+
+    private static Argb overPre(Channels fg, Channels bg) {
+        var oneMinusFgA = DoubleVector.broadcast(DOUBLES, 1.).sub(fg.a());
+        return new Argb(
+                dToI(fg.a().add(bg.a().mul(oneMinusFgA))),
+                dToI(fg.r().add(bg.r().mul(oneMinusFgA))),
+                dToI(fg.g().add(bg.g().mul(oneMinusFgA))),
+                dToI(fg.b().add(bg.b().mul(oneMinusFgA))));
+    }
+
+    private static Argb subtract(Channels fg, Channels bg) {
+        var oneMinusFgA = DoubleVector.broadcast(DOUBLES, 1.).sub(fg.a());
+        return new Argb(
+                bg.rawA(),
+                dToI(fg.a().mul(clipD(fg.r().sub(bg.r()))).add(oneMinusFgA.mul(bg.r()))),
+                dToI(fg.a().mul(clipD(fg.g().sub(bg.g()))).add(oneMinusFgA.mul(bg.g()))),
+                dToI(fg.a().mul(clipD(fg.b().sub(bg.b()))).add(oneMinusFgA.mul(bg.b()))));
+    }
+
+    private static Channels unpack(IntVector argb) {
+        var a = argb.lanewise(VectorOperators.LSHR, 24);
+        return new Channels(a,
+                iToD(a),
+                iToD(argb.lanewise(VectorOperators.LSHR, 16).and(0xff)),
+                iToD(argb.lanewise(VectorOperators.LSHR, 8).and(0xff)),
+                iToD(argb.and(0xff)));
+    }
+
+    private static Channels widen(ByteVector a, ByteVector r, ByteVector g, ByteVector b, int part) {
+        var rawA = widen(a, part);
+        return new Channels(rawA, iToD(rawA), iToD(widen(r, part)), iToD(widen(g, part)), iToD(widen(b, part)));
+    }
+
+    private static IntVector widen(ByteVector channel, int part) {
+        return ((IntVector) channel.convertShape(VectorOperators.B2I, INTS, part)).and(0xff);
+    }
+
+    private static ByteVector narrow(IntVector channel, int part) {
+        return (ByteVector) channel.convertShape(VectorOperators.I2B, BYTES, -part);
+    }
+
+    private static DoubleVector iToD(IntVector channel) {
+        return ((DoubleVector) channel.convertShape(VectorOperators.I2D, DOUBLES, 0)).mul(ONE_OVER_255);
+    }
+
+    private static IntVector dToI(DoubleVector d) {
+        return (IntVector) clipD(d).mul(255.).convertShape(VectorOperators.D2I, INTS, 0);
+    }
+
+    private static DoubleVector clipD(DoubleVector d) {
+        return d.min(1.).max(0.);
+    }
+}
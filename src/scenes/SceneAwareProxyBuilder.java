@@ -93,6 +93,8 @@ public class SceneAwareProxyBuilder {
 //                // toString / equals / hashCode / etc.
 //                return method.invoke(this, args);
 //            }
+            // default methods land here too, so a target's overrides of them (like Renderer.render(clip) and
+            // supportsClip()) are the ones that run
             var scene = sceneSupplier.get();
             var target = Optional.of(scene.getClass())
                     .filter(targetsByScene::containsKey)
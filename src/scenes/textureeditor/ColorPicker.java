@@ -4,12 +4,15 @@ import logging.LogManager;
 import logging.Logger;
 import rendering.BlendMode;
 import rendering.Color;
+import rendering.Damage;
 import rendering.Painter;
-import rendering.PixelRaster;
 import rendering.Printer;
 import rendering.Raster;
+import rendering.RasterFactory;
+import rendering.RasterPrinter;
 import rendering.Renderer;
 import ui.KeyAction;
+import ui.Layer;
 
 import java.awt.Toolkit;
 import java.awt.datatransfer.DataFlavor;
@@ -29,14 +32,10 @@ public class ColorPicker implements Renderer {
 
     private static final Pattern HEX_CODE_PATTERN = Pattern.compile("^(0x|0X|)(?<hex>[0-9a-fA-F]{6})$");
 
-    private static final float ONE_SIXTH   = (float) 1 / 6;
-    private static final float ONE_THIRD   = (float) 1 / 3;
-    private static final float ONE_HALF    = (float) 1 / 2;
-    private static final float TWO_THIRDS  = (float) 2 / 3;
-    private static final float FIVE_SIXTHS = (float) 5 / 6;
-
     private final TextureEditor editor;
     private final Raster        display;
+    private final RasterFactory rasterFactory;
+    private final Layer         layer;
     private final Painter       painter;
     private final Printer       printer;
     private final int           fontSize;
@@ -57,6 +56,18 @@ public class ColorPicker implements Renderer {
     private final int           previewHeight;
     private final int           previewX;
     private final int           previewY;
+    // top left corner of the layer everything is drawn into, on the display
+    private final int           layerX;
+    private final int           layerY;
+    // rgb of every column of the hue slider, which never changes
+    private final int[]         hueLut;
+    private final Raster        hueSlider;
+    // the shade picker depends only on the hue, and the alpha slider only on the shade; both are rebuilt when those
+    // change, and -1 until first built
+    private       Raster        shadePicker;
+    private       int           shadePickerHue   = -1;
+    private       Raster        alphaSlider;
+    private       int           alphaSliderShade = -1;
     private       boolean       selectingHue   = false;
     private       boolean       selectingShade = false;
     private       boolean       selectingAlpha = false;
@@ -71,8 +82,7 @@ public class ColorPicker implements Renderer {
     public ColorPicker(TextureEditor editor, Color initial) {
         this.editor = editor;
         this.display = editor.display();
-        this.painter = editor.painter();
-        this.printer = editor.printer();
+        this.rasterFactory = editor.rasterFactory();
         this.fontSize = editor.fontSize();
         this.charSpacing = editor.charSpacing();
 
@@ -94,115 +104,52 @@ public class ColorPicker implements Renderer {
         previewX = hueSliderX - previewWidth;
         previewY = shadePickerY;
 
+        // the hex code sits on top of the shade picker
+        layerX = previewX;
+        layerY = shadePickerY - fontSize;
+        layer = Layer.builder()
+                .target(editor.painter())
+                .at(layerX, layerY)
+                .raster(editor.rasterFactory().create(display.width() - layerX, display.height() - layerY))
+                .draw(this::draw)
+                .build();
+        painter = layer.painter();
+        printer = new RasterPrinter(layer.raster(), editor.font());
+
+        hueLut = new int[hueSliderWidth + 1];
+        for (int col = 0; col <= hueSliderWidth; ++col) {
+            hueLut[col] = Hsv.hueRgb(col * Hsv.HUE_RANGE / hueSliderWidth);
+        }
+        hueSlider = rasterFactory.createArgb(hueSliderWidth, hueSliderHeight,
+                (_, col, _) -> 0xff000000 | hueLut[col]);
+
         alphaX = alphaSliderWidth;
 
-        set(initial);
+        apply(initial);
     }
 
     public void set(Color color) {
-        if (color.blue() == color.green() && color.green() == color.red()) {  // all shades of gray, from white to black
+        apply(color);
+    }
+
+    // set's work, which the constructor can call without reaching anything a subclass could override
+    private void apply(Color color) {
+        var hsv = Hsv.ofRgb(color.rgbInt24());
+        if (hsv.saturation() == 0) {  // all shades of gray, from white to black
             this.hue = NamedColor.RED;  // arbitrary
             this.shade = color;
             inferAlpha();
+            layer.invalidate();
             return;
         }
-
-        // blending formula: blended_with_white = x + (1 - x) * hue
-        // 1. un-blend with black
-        //   i. take max component, scale all components up by 1 / max
-        //      this also yields y! it's just 1 - max
-        // 2. un-blend with white
-        //   i. solve blending formula for remaining two components:
-        //      formula: blend = x + (1 - x) * hue
-        //      for the min component, hue is 0! this means we can simplify to:
-        //      blend_min = x
-        //  ii. for the remaining (med) component, solve by substituting x for blend_min:
-        //      hue_med = (blend_med - blend_min) / (1 - blend_min)
-        // 3. now that we have hue, solve for x and y
-        //   i. solve for x using the blending formula
-        //      blend_with_white_only = x + (1 - x) * hue
-        //      ...
-        //      x = (blend - hue) / (1 - hue)
-        //      to solve this, use blend_med:
-        //      x = (blend_med - hue_med) / (1 - hue_med)
-
-        float r = ((int) color.red() & 0xff) / 255f;
-        float g = ((int) color.green() & 0xff) / 255f;
-        float b = ((int) color.blue() & 0xff) / 255f;
-
-        // compute max
-        float max = r;
-        char argMax = 'r';
-        if (g > max) {
-            max = g;
-            argMax = 'g';
-        }
-        if (b > max) {
-            max = b;
-            argMax = 'b';
-        }
-
-        // compute min
-        float min = b;
-        char argMin = 'b';
-        if (g < min) {
-            min = g;
-            argMin = 'g';
-        }
-        if (r < min) {
-            min = r;
-            argMin = 'r';
-        }
-
-        // compute med
-        char argMed = switch (argMax) {
-            case 'r' -> argMin == 'g' ? 'b' : 'g';
-            case 'g' -> argMin == 'r' ? 'b' : 'r';
-            default -> argMin == 'r' ? 'g' : 'r';
-        };
-        float med = switch (argMed) {
-            case 'r' -> r;
-            case 'g' -> g;
-            default -> b;
-        };
-
-        // un-blend black
-        float no_blk_min = min / max;
-        float no_blk_med = med / max;
-
-        // un-blend white
-        float no_white_med = (no_blk_med - no_blk_min) / (1 - no_blk_min);
-
-        // compute shade picker coordinates
-        float shadeX = 1 - (no_blk_med - no_white_med) / (1 - no_white_med);
-        float shadeY = max;
-        this.shadeX = (int) (shadeX * shadePickerWidth);
-        this.shadeY = (int) (shadeY * shadePickerHeight);
-
-        // compute hue slider coordinates
-        float hueX = switch (argMin) {
-            case 'r' -> argMax == 'g'
-                    ? (no_white_med + 2) / 6
-                    : (4 - no_white_med) / 6;
-            case 'g' -> argMax == 'r'
-                    ? 1 - no_white_med / 6
-                    : (4 + no_white_med) / 6;
-            default -> argMax == 'r'
-                    ? no_white_med / 6
-                    : (2 - no_white_med) / 6;
-        };
-        this.hueX = (int) (hueX * hueSliderWidth);
-
-        byte hueMin = 0;
-        byte hueMed = (byte) (no_white_med * 255);
-        byte hueMax = (byte) 0xff;
-        this.hue = RgbInt24Color.of(
-                'r' == argMin ? hueMin : 'r' == argMed ? hueMed : hueMax,
-                'g' == argMin ? hueMin : 'g' == argMed ? hueMed : hueMax,
-                'b' == argMin ? hueMin : 'b' == argMed ? hueMed : hueMax
-        );
+        // saturation runs left to right across the shade picker, value top to bottom
+        this.shadeX = hsv.saturation() * shadePickerWidth / 255;
+        this.shadeY = hsv.value() * shadePickerHeight / 255;
+        this.hueX = hsv.hue() * hueSliderWidth / Hsv.HUE_RANGE;
+        this.hue = RgbInt24Color.of(hsv.hueRgb());
         this.shade = color;
         inferAlpha();
+        layer.invalidate();
     }
 
     public Color getColor() {
@@ -316,10 +263,36 @@ public class ColorPicker implements Renderer {
                 }
             }
         }
+        layer.invalidate();
     }
 
     @Override
     public void render() {
+        layer.render();
+    }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        layer.render(clip);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
+    // where the picker is drawn on the display
+    public Damage.Rect bounds() {
+        return layer.bounds();
+    }
+
+    // whether the next render draws the picker anew
+    public boolean isDirty() {
+        return layer.isDirty();
+    }
+
+    // in layer coordinates; the positions of the parts are on the display
+    private void draw() {
         renderPreview();
         renderShadePicker();
         renderHueSlider();
@@ -328,7 +301,7 @@ public class ColorPicker implements Renderer {
     }
 
     private void renderPreview() {
-        painter.drawImg(previewX, previewY, previewWidth, previewHeight, alpha, BlendMode.OVER_PRE);
+        painter.drawImg(previewX - layerX, previewY - layerY, previewWidth, previewHeight, alpha, BlendMode.OVER_PRE);
     }
 
     private void renderHexCode() {
@@ -336,7 +309,7 @@ public class ColorPicker implements Renderer {
         int codeWidth = code.length() * (fontSize + charSpacing);
         int centerX = previewX + ((previewWidth + shadePickerWidth - codeWidth) >> 1);
         int y = shadePickerY - fontSize;
-        printer.print(code, centerX, y, Printer.Size.of(fontSize), Printer.Color.of(shade));
+        printer.print(code, centerX - layerX, y - layerY, Printer.Size.of(fontSize), Printer.Color.of(shade));
     }
 
     private String hexCode() {
@@ -344,82 +317,51 @@ public class ColorPicker implements Renderer {
     }
 
     private void renderHueSlider() {
-        var hueSlider = new PixelRaster(hueSliderWidth, hueSliderHeight,
-                (_, col, _) -> getColorOnHueSlider((float) col));
-        painter.drawImg(hueSliderX, hueSliderY, hueSlider, BlendMode.NORMAL);
-        painter.drawImg(hueSliderX + hueX - 5, hueSliderY, 10, hueSliderHeight, (_, col, row)
+        painter.drawImg(hueSliderX - layerX, hueSliderY - layerY, hueSlider, BlendMode.NORMAL);
+        painter.drawImg(hueSliderX - layerX + hueX - 5, hueSliderY - layerY, 10, hueSliderHeight, (_, col, row)
                 -> (col == 0 || row == 0 || col == 9 || row == hueSliderHeight - 1)  // white border
                 ? NamedColor.WHITE : NamedColor.NONE, BlendMode.OVER_PRE);
     }
 
     private void renderAlphaSlider() {
-        var alphaSlider = new PixelRaster(alphaSliderWidth, alphaSliderHeight,
-                (_, col, _) -> getColorOnAlphaSlider(col));
-        painter.drawImg(alphaSliderX, alphaSliderY, alphaSlider, BlendMode.OVER_PRE);
-        painter.drawImg(alphaSliderX + alphaX - 5, alphaSliderY, 10, alphaSliderHeight, (_, col, row)
+        int shadeArgb = shade.argbInt32();
+        if (alphaSlider == null || shadeArgb != alphaSliderShade) {
+            alphaSlider = rasterFactory.createArgb(alphaSliderWidth, alphaSliderHeight,
+                    (_, col, _) -> getColorOnAlphaSlider(col).argbInt32());
+            alphaSliderShade = shadeArgb;
+        }
+        painter.drawImg(alphaSliderX - layerX, alphaSliderY - layerY, alphaSlider, BlendMode.OVER_PRE);
+        painter.drawImg(alphaSliderX - layerX + alphaX - 5, alphaSliderY - layerY, 10, alphaSliderHeight, (_, col, row)
                 -> (col == 0 || row == 0 || col == 9 || row == alphaSliderHeight - 1)  // white border
                 ? NamedColor.WHITE : NamedColor.NONE, BlendMode.OVER_PRE);
     }
 
     private void renderShadePicker() {
-        var shadePicker = new PixelRaster(shadePickerWidth, shadePickerHeight,
-                (_, col, row) -> getColorOnShadePicker((float) col, (float) row));
-        painter.drawImg(shadePickerX, shadePickerY, shadePicker, BlendMode.NORMAL);
-        painter.drawImg(shadePickerX + shadeX - 5, shadePickerY + shadeY - 5, 10, 10, (_, col, row)
+        int hueRgb = hue.rgbInt24();
+        if (shadePicker == null || hueRgb != shadePickerHue) {
+            shadePicker = rasterFactory.createArgb(shadePickerWidth, shadePickerHeight, (_, col, row)
+                    -> 0xff000000 | Hsv.rgb(hueRgb, col, shadePickerWidth, row, shadePickerHeight));
+            shadePickerHue = hueRgb;
+        }
+        painter.drawImg(shadePickerX - layerX, shadePickerY - layerY, shadePicker, BlendMode.NORMAL);
+        painter.drawImg(shadePickerX - layerX + shadeX - 5, shadePickerY - layerY + shadeY - 5, 10, 10, (_, col, row)
                 -> (col == 0 || row == 0 || col == 9 || row == 9)  // white border
                 ? NamedColor.WHITE : NamedColor.WHITE.withAlpha(0), BlendMode.NORMAL);
     }
 
-    @SuppressWarnings("DuplicateBranchesInSwitch")
-    private RgbInt24Color getColorOnHueSlider(float col) {
-        // https://www.desmos.com/calculator/wfwjzctarh
-        float fraction = col / hueSliderWidth;
-        float red = switch (fraction) {
-            case float v when v < ONE_SIXTH -> 1;
-            case float v when v < ONE_THIRD -> -6 * (fraction - ONE_THIRD);
-            case float v when v < TWO_THIRDS -> 0;
-            case float v when v < FIVE_SIXTHS -> 6 * (fraction - TWO_THIRDS);
-            default -> 1;
-        };
-        float green = switch (fraction) {
-            case float v when v < ONE_SIXTH -> 6 * fraction;
-            case float v when v < ONE_HALF -> 1;
-            case float v when v < TWO_THIRDS -> -6 * (fraction - TWO_THIRDS);
-            default -> 0;
-        };
-        float blue = switch (fraction) {
-            case float v when v < ONE_THIRD -> 0;
-            case float v when v < ONE_HALF -> 6 * (fraction - ONE_THIRD);
-            case float v when v < FIVE_SIXTHS -> 1;
-            default -> -6 * (fraction - 1);
-        };
-        return RgbInt24Color.of((byte) (red * 255), (byte) (green * 255), (byte) (blue * 255));
+    private RgbInt24Color getColorOnHueSlider(int col) {
+        return RgbInt24Color.of(hueLut[col]);
     }
 
     private void inferAlpha() {
         alpha = getColorOnAlphaSlider(alphaX);
     }
 
-    private Color getColorOnAlphaSlider(float col) {
-        var fraction = col / hueSliderWidth;
-        return shade.withAlpha(fraction);
-    }
-
-    private Color getColorOnShadePicker(float col, float row) {
-        var whiteFraction = 1f - col / shadePickerWidth;
-        var blackFraction = 1f - row / shadePickerHeight;
-        return blend(blackFraction, NamedColor.BLACK,
-                blend(whiteFraction, NamedColor.WHITE, hue));
-    }
-
-    private static Color blend(float fraction, Color first, Color second) {
-        var r = blend(fraction, first.red(), second.red());
-        var g = blend(fraction, first.green(), second.green());
-        var b = blend(fraction, first.blue(), second.blue());
-        return RgbInt24Color.of(r, g, b);
+    private Color getColorOnAlphaSlider(int col) {
+        return shade.withAlpha((byte) (col * 255 / alphaSliderWidth));
     }
 
-    private static byte blend(float fraction, byte first, byte second) {
-        return (byte) (fraction * ((int) first & 0xff) + (1 - fraction) * ((int) second & 0xff));
+    private Color getColorOnShadePicker(int col, int row) {
+        return RgbInt24Color.of(Hsv.rgb(hue.rgbInt24(), col, shadePickerWidth, row, shadePickerHeight));
     }
 }
@@ -0,0 +1,68 @@
+package scenes.textureeditor;
+
+// integer hue / saturation / value, laid out the way the color picker shows them. hue runs through six ramps of 255
+// steps each (red, yellow, green, cyan, blue, magenta, and back to red); saturation blends the hue with white, and
+// value blends the result with black, both in [0, 255].
+record Hsv(int hue, int saturation, int value) {
+    static final int HUE_RANGE = 6 * 255;
+
+    // gray has no hue; it comes out as red, unsaturated
+    static Hsv ofRgb(int rgb) {
+        int r = rgb >>> 16 & 0xff;
+        int g = rgb >>> 8 & 0xff;
+        int b = rgb & 0xff;
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        if (max == min) {
+            return new Hsv(0, 0, max);
+        }
+        // how far the middle component is between min and max is how far along its ramp the hue is
+        int chroma = max - min;
+        int hue = max == r && min == b ? (g - min) * 255 / chroma
+                : max == g && min == b ? 2 * 255 - (r - min) * 255 / chroma
+                : max == g ? 2 * 255 + (b - min) * 255 / chroma
+                : max == b && min == r ? 4 * 255 - (g - min) * 255 / chroma
+                : max == b ? 4 * 255 + (r - min) * 255 / chroma
+                : HUE_RANGE - (b - min) * 255 / chroma;
+        return new Hsv(hue, chroma * 255 / max, max);
+    }
+
+    // the fully saturated, full value color at hue, in [0, HUE_RANGE]
+    static int hueRgb(int hue) {
+        int ramp = Math.min(hue / 255, 5);
+        int t = hue - ramp * 255;
+        return switch (ramp) {
+            case 0 -> rgb(255, t, 0);
+            case 1 -> rgb(255 - t, 255, 0);
+            case 2 -> rgb(0, 255, t);
+            case 3 -> rgb(0, 255 - t, 255);
+            case 4 -> rgb(t, 0, 255);
+            default -> rgb(255, 0, 255 - t);
+        };
+    }
+
+    // hueRgb at saturation s / sMax and value v / vMax
+    static int rgb(int hueRgb, int s, int sMax, int v, int vMax) {
+        return rgb(
+                shade(hueRgb >>> 16 & 0xff, s, sMax, v, vMax),
+                shade(hueRgb >>> 8 & 0xff, s, sMax, v, vMax),
+                shade(hueRgb & 0xff, s, sMax, v, vMax));
+    }
+
+    int hueRgb() {
+        return hueRgb(hue);
+    }
+
+    int rgb() {
+        return rgb(hueRgb(), saturation, 255, value, 255);
+    }
+
+    private static int shade(int component, int s, int sMax, int v, int vMax) {
+        int withWhite = (255 * (sMax - s) + component * s) / sMax;
+        return withWhite * v / vMax;
+    }
+
+    private static int rgb(int r, int g, int b) {
+        return r << 16 | g << 8 | b;
+    }
+}
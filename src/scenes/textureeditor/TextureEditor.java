@@ -7,19 +7,21 @@ import rendering.ArgbSerializer;
 import rendering.BlendMode;
 import rendering.ChainRasterSerializer;
 import rendering.Color;
+import rendering.Damage;
 import rendering.FileSystemRasterRepository;
 import rendering.Font;
 import rendering.FsFontLoader;
 import rendering.Painter;
-import rendering.PixelRaster;
 import rendering.Printer;
 import rendering.Raster;
+import rendering.RasterFactory;
 import rendering.RasterFilter;
 import rendering.RasterPainter;
 import rendering.RasterPrinter;
 import rendering.RasterRepository;
 import rendering.Renderer;
 import rendering.RgbSerializer;
+import rendering.TileExecutor;
 import scenes.Scene;
 import scenes.textureeditor.console.Console;
 import scenes.textureeditor.model.Coordinates;
@@ -37,6 +39,7 @@ import java.awt.event.MouseWheelListener;
 import java.io.File;
 import java.nio.file.Path;
 import java.time.Clock;
+import java.util.Optional;
 
 import static rendering.Color.NamedColor;
 import static scenes.textureeditor.model.Mode.BOX_SELECT;
@@ -58,9 +61,14 @@ public class TextureEditor implements
     private static final Logger LOG          = LogManager.instance().getThis();
     private static final Mode   DEFAULT_MODE = BRUSH;
 
+    private static final double ZOOM_STEP = 1.25;
+    private static final int    PAN_STEP  = 40;
+
     private static final Painter.LineSampler SELECTION_PATTERN
             = (i, _, _) -> (i / 8) % 2 == 0 ? NamedColor.BLACK : NamedColor.WHITE;
+    private static final Damage.Rect         NOWHERE           = new Damage.Rect(0, 0, 0, 0);
 
+    private final RasterFactory    rasterFactory;
     private final RasterRepository repo;
     private final Raster           display;
     private final Painter          painter;
@@ -71,11 +79,22 @@ public class TextureEditor implements
     private final ToolCard         toolCard;
     private final ColorPicker      colorPicker;
     private final Console          console;
+    private final Viewport         viewport;
+    // what needs redrawing; each event adds the parts of the display it changed
+    private final Damage           invalidation;
+    // whether button 1 went down on the texture and hasn't come up yet. drags and releases only act on the texture
+    // while it has, and the cursor is clamped to its edge for them.
+    private       boolean          dragging = false;
 
     public TextureEditor(Raster display, Clock clock, int width, int height) {
+        this(display, clock, width, height, RasterFactory.PLANAR);
+    }
+
+    public TextureEditor(Raster display, Clock clock, int width, int height, RasterFactory rasterFactory) {
+        this.rasterFactory = rasterFactory;
         this.repo = new FileSystemRasterRepository(clock, ChainRasterSerializer.of(
-                ArgbSerializer.INSTANCE,
-                RgbSerializer.INSTANCE));
+                ArgbSerializer.of(rasterFactory),
+                RgbSerializer.of(rasterFactory)));
         this.display = display;
         this.painter = new RasterPainter(display);
         this.font = FsFontLoader.builder()
@@ -84,6 +103,8 @@ public class TextureEditor implements
                 .fontPath("assets/fonts/test")
                 .fontDimensions(16)
                 .filter(RasterFilter.antiAlias())
+                .rasterFactory(rasterFactory)
+                .executor(TileExecutor.builder().build())
                 .build()
                 .load();
         this.printer = new RasterPrinter(display, font);
@@ -91,11 +112,14 @@ public class TextureEditor implements
         this.state = new EditorState(
                 DEFAULT_MODE,
                 Path.of("assets/icons").toFile(),
-                new PixelRaster(width, height, NamedColor.NONE),
+                rasterFactory.create(width, height, NamedColor.NONE),
                 100);
         this.toolCard = new ToolCard(this);
         this.colorPicker = new ColorPicker(this, NamedColor.WHITE);
         this.console = new Console(this, 500);
+        this.viewport = new Viewport(display.width(), display.height());
+        this.invalidation = new Damage(display.width(), display.height());
+        invalidation.addFull();
     }
 
     @Override
@@ -106,6 +130,7 @@ public class TextureEditor implements
     @Override
     public void keyPressed(KeyEvent e) {
         LOG.trace("Handling %s", e);
+        var before = shown();
         var action = KeyAction.fromAwt(e);
         switch (state.mode()) {
             case PIXEL_SELECT:
@@ -132,6 +157,7 @@ public class TextureEditor implements
                 console.accept(action);
                 break;
         }
+        damage(before);
     }
 
     @Override
@@ -150,7 +176,19 @@ public class TextureEditor implements
         if (e.getButton() != MouseEvent.BUTTON1) {
             return;
         }
-        var c = normalize(e);
+        var before = shown();
+        if (COLOR_PICKER.equals(state.mode())) {
+            colorPicker.accept(e);
+            damage(before);
+            return;
+        }
+        var texel = normalize(e);
+        if (texel.isEmpty()) {
+            LOG.debug("Ignoring press at [%d, %d], off the texture", e.getX(), e.getY());
+            return;
+        }
+        dragging = true;
+        var c = texel.get();
         int x = c.x();
         int y = c.y();
         // todo lasso select
@@ -169,21 +207,21 @@ public class TextureEditor implements
                 switch (s) {
                     case PixelSelection px -> {
                         if (px.is(x, y)) {
-                            state.texture().pixel(x, y, colorPicker.getColor());
+                            paint(x, y);
                         }
                     }
                     case BoxSelection box -> {
                         if (box.contains(x, y)) {
-                            state.texture().pixel(x, y, colorPicker.getColor());
+                            paint(x, y);
                         }
                     }
                     case LassoSelection lasso -> {
                         if (lasso.contains(c)) {
-                            state.texture().pixel(x, y, colorPicker.getColor());
+                            paint(x, y);
                         }
                     }
                 }
-            }, () -> state.texture().pixel(x, y, colorPicker.getColor()));
+            }, () -> paint(x, y));
             case FILL -> state.selection().ifPresentOrElse(s -> {  // selection acts as an invert toggle
                         switch (s) {
                             case PixelSelection px -> {
@@ -204,8 +242,8 @@ public class TextureEditor implements
                         saveToHistory();
                     }
             );
-            case COLOR_PICKER -> colorPicker.accept(e);
         }
+        damage(before);
     }
 
     @Override
@@ -214,7 +252,17 @@ public class TextureEditor implements
         if (e.getButton() != MouseEvent.BUTTON1) {
             return;
         }
-        var c = normalize(e);
+        var before = shown();
+        if (COLOR_PICKER.equals(state.mode())) {
+            colorPicker.accept(e);
+            damage(before);
+            return;
+        }
+        if (!dragging) {
+            return;
+        }
+        dragging = false;
+        var c = clamp(e);
         int x = c.x();
         int y = c.y();
         switch (state.mode()) {
@@ -227,8 +275,8 @@ public class TextureEditor implements
             }
             case LASSO_SELECT -> throw new UnsupportedOperationException("terminate lasso select");
             case BRUSH -> saveToHistory();
-            case COLOR_PICKER -> colorPicker.accept(e);
         }
+        damage(before);
     }
 
     @Override
@@ -244,7 +292,16 @@ public class TextureEditor implements
     @Override
     public void mouseDragged(MouseEvent e) {
         LOG.trace("Handling %s", e);
-        var c = normalize(e);
+        var before = shown();
+        if (COLOR_PICKER.equals(state.mode())) {
+            colorPicker.accept(e);
+            damage(before);
+            return;
+        }
+        if (!dragging) {
+            return;
+        }
+        var c = clamp(e);
         int x = c.x();
         int y = c.y();
         switch (state.mode()) {
@@ -259,23 +316,23 @@ public class TextureEditor implements
                 switch (s) {
                     case PixelSelection px -> {
                         if (px.is(x, y)) {
-                            state.texture().pixel(x, y, colorPicker.getColor());
+                            paint(x, y);
                         }
                     }
                     case BoxSelection box -> {
                         if (box.contains(x, y)) {
-                            state.texture().pixel(x, y, colorPicker.getColor());
+                            paint(x, y);
                         }
                     }
                     case LassoSelection lasso -> {
                         if (lasso.contains(c)) {
-                            state.texture().pixel(x, y, colorPicker.getColor());
+                            paint(x, y);
                         }
                     }
                 }
-            }, () -> state.texture().pixel(x, y, colorPicker.getColor()));
-            case COLOR_PICKER -> colorPicker.accept(e);
+            }, () -> paint(x, y));
         }
+        damage(before);
     }
 
     @Override
@@ -286,29 +343,50 @@ public class TextureEditor implements
     @Override
     public void mouseWheelMoved(MouseWheelEvent e) {
         LOG.trace("Handling %s", e);
-        // todo zoom / pan
+        var before = shown();
         switch (state().mode()) {
             case COMMAND_ENTRY -> console.accept(e);
+            default -> {
+                // ctrl zooms around the cursor, shift scrolls sideways
+                double rotation = e.getPreciseWheelRotation();
+                if (e.isControlDown()) {
+                    viewport.zoomAt(e.getX(), e.getY(), Math.pow(ZOOM_STEP, -rotation));
+                } else if (e.isShiftDown()) {
+                    viewport.pan((int) Math.round(rotation * PAN_STEP), 0);
+                } else {
+                    viewport.pan(0, (int) Math.round(rotation * PAN_STEP));
+                }
+            }
         }
+        damage(before);
     }
 
     @Override
     public void render() {
-        LOG.trace("Rendering");
-        // todo zoom / pan
-        renderTexture();
-        renderSelection();
+        render(invalidation.full());
+    }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        LOG.trace("Rendering %s", clip);
+        renderTexture(clip);
+        renderSelection(clip);
         if (state.isToolCardShown()) {
-            toolCard.render();
+            toolCard.render(clip);
         }
         if (COLOR_PICKER.equals(state.mode())) {
-            colorPicker.render();
+            colorPicker.render(clip);
         }
         if (COMMAND_ENTRY.equals(state.mode())) {
-            console.render();
+            console.render(clip);
         }
     }
 
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
     public void escape() {
         state.mode(DEFAULT_MODE);
     }
@@ -325,6 +403,20 @@ public class TextureEditor implements
                 });
     }
 
+    public Damage invalidation() {
+        return invalidation;
+    }
+
+    // everything on screen needs redrawing. input handled by the console and color picker goes through this
+    // editor's listeners, which damage what it changed after dispatching.
+    public void invalidate() {
+        invalidation.addFull();
+    }
+
+    public RasterFactory rasterFactory() {
+        return rasterFactory;
+    }
+
     public RasterRepository repo() {
         return repo;
     }
@@ -369,46 +461,152 @@ public class TextureEditor implements
         return colorPicker;
     }
 
-    private void renderTexture() {
-        var scaledTexture = state.texture().scale(display.width(), display.height());
-        painter.drawImg(0, 0, scaledTexture, BlendMode.OVER_PRE);
-    }
-
-    private void renderSelection() {
-        var xScale = 1. * display.width() / state.texture().width();
-        var yScale = 1. * display.height() / state.texture().height();
-        state.selection().ifPresentOrElse(s -> {
-            switch (s) {
-                case PixelSelection px -> {
-                    int l = (int) (px.px().x() * xScale);
-                    int t = (int) (px.px().y() * yScale);
-                    int r = (int) ((px.px().x() + 1) * xScale) - 1;
-                    int b = (int) ((px.px().y() + 1) * yScale) - 1;
-                    painter.drawLine(l, t, r, t, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                    painter.drawLine(l, t, l, b, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                    painter.drawLine(r, t, r, b, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                    painter.drawLine(l, b, r, b, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                }
-                case BoxSelection box -> {
-                    int l = (int) (box.tl().x() * xScale);
-                    int t = (int) (box.tl().y() * yScale);
-                    int r = (int) ((box.br().x() + 1) * xScale) - 1;
-                    int b = (int) ((box.br().y() + 1) * yScale) - 1;
-                    painter.drawLine(l, t, r, t, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                    painter.drawLine(l, t, l, b, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                    painter.drawLine(r, t, r, b, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                    painter.drawLine(l, b, r, b, SELECTION_PATTERN, BlendMode.SUBTRACT);
-                }
-                default -> throw new UnsupportedOperationException(state.selection().getClass().getName());
+    // what the editor shows, taken before each event and compared with what it shows after, so only what changed is
+    // redrawn. texels written in place don't change any of this; they're damaged where they're written.
+    private record Shown(double zoom, int panX, int panY, Raster texture, Damage.Rect selection,
+                         Damage.Rect toolCard, Damage.Rect colorPicker, Damage.Rect console) {}
+
+    private Shown shown() {
+        return new Shown(viewport.zoom(), viewport.panX(), viewport.panY(), state.texture(),
+                outline().map(Outline::bounds).orElse(NOWHERE),
+                state.isToolCardShown() ? toolCard.bounds() : NOWHERE,
+                COLOR_PICKER.equals(state.mode()) ? colorPicker.bounds() : NOWHERE,
+                COMMAND_ENTRY.equals(state.mode()) ? console.bounds() : NOWHERE);
+    }
+
+    private void damage(Shown before) {
+        var after = shown();
+        if (before.zoom() != after.zoom() || before.panX() != after.panX() || before.panY() != after.panY()) {
+            // every texel moved
+            invalidate();
+            return;
+        }
+        if (before.texture() != after.texture()) {
+            invalidation.add(textureBounds(before.texture()));
+            invalidation.add(textureBounds(after.texture()));
+        }
+        damage(before.selection(), after.selection(), false);
+        damage(before.toolCard(), after.toolCard(), toolCard.isDirty());
+        damage(before.colorPicker(), after.colorPicker(), colorPicker.isDirty());
+        damage(before.console(), after.console(), console.isDirty());
+    }
+
+    // something drawn over before is now drawn over after; dirty when it looks different even if it didn't move
+    private void damage(Damage.Rect before, Damage.Rect after, boolean dirty) {
+        if (!before.equals(after)) {
+            invalidation.add(before);
+            invalidation.add(after);
+        } else if (dirty) {
+            invalidation.add(after);
+        }
+    }
+
+    private Damage.Rect textureBounds(Raster texture) {
+        return viewport.displayRect(0, 0, texture.width(), texture.height(), texture.width(), texture.height());
+    }
+
+    private Damage.Rect texelBounds(int x, int y, int w, int h) {
+        return viewport.displayRect(x, y, w, h, state.texture().width(), state.texture().height());
+    }
+
+    private void paint(int x, int y) {
+        state.texture().pixel(x, y, colorPicker.getColor());
+        invalidation.add(texelBounds(x, y, 1, 1));
+    }
+
+    private void renderTexture(Damage.Rect clip) {
+        viewport.render(painter, state.texture(), clip);
+    }
+
+    // corners of the selection outline on the display, inclusive
+    private record Outline(int l, int t, int r, int b) {
+        Damage.Rect bounds() {
+            return new Damage.Rect(Math.min(l, r), Math.min(t, b), Math.abs(r - l) + 1, Math.abs(b - t) + 1);
+        }
+    }
+
+    private Optional<Outline> outline() {
+        int w = state.texture().width();
+        int h = state.texture().height();
+        return state.selection().map(s -> switch (s) {
+            case PixelSelection px -> new Outline(
+                    viewport.displayX(px.px().x(), w),
+                    viewport.displayY(px.px().y(), h),
+                    viewport.displayX(px.px().x() + 1, w) - 1,
+                    viewport.displayY(px.px().y() + 1, h) - 1);
+            case BoxSelection box -> new Outline(
+                    viewport.displayX(box.tl().x(), w),
+                    viewport.displayY(box.tl().y(), h),
+                    viewport.displayX(box.br().x() + 1, w) - 1,
+                    viewport.displayY(box.br().y() + 1, h) - 1);
+            default -> throw new UnsupportedOperationException(s.getClass().getName());
+        });
+    }
+
+    private void renderSelection(Damage.Rect clip) {
+        outline().ifPresent(o -> {
+            drawSelectionLine(o.l(), o.t(), o.r(), o.t(), clip);
+            drawSelectionLine(o.l(), o.t(), o.l(), o.b(), clip);
+            drawSelectionLine(o.r(), o.t(), o.r(), o.b(), clip);
+            drawSelectionLine(o.l(), o.b(), o.r(), o.b(), clip);
+        });
+    }
+
+    // the part of a horizontal or vertical outline line inside clip. lines overwrite what's under them, so drawing
+    // past the clip would wipe out overlays that are only redrawn inside it.
+    private void drawSelectionLine(int x1, int y1, int x2, int y2, Damage.Rect clip) {
+        boolean vertical = x1 == x2 && y1 != y2;
+        int across = vertical ? x1 : y1;
+        int acrossMin = vertical ? clip.x() : clip.y();
+        int acrossMax = acrossMin + (vertical ? clip.w() : clip.h());
+        if (across < acrossMin || across >= acrossMax) {
+            return;
+        }
+        int from = vertical ? Math.min(y1, y2) : Math.min(x1, x2);
+        int to = vertical ? Math.max(y1, y2) : Math.max(x1, x2);
+        int alongMin = vertical ? clip.y() : clip.x();
+        int alongMax = alongMin + (vertical ? clip.h() : clip.w());
+        if (from == to) {
+            if (from >= alongMin && from < alongMax) {
+                painter.drawLine(x1, y1, x2, y2, SELECTION_PATTERN, BlendMode.SUBTRACT);
             }
-        }, () -> {});
+            return;
+        }
+        // like drawLine, from is drawn and to isn't
+        int start = Math.max(from, alongMin);
+        int end = Math.min(to, alongMax);
+        if (start >= end) {
+            return;
+        }
+        // keeps the dashes where the whole line would have put them
+        int skipped = start - from;
+        Painter.LineSampler sampler = (i, length, progress) -> SELECTION_PATTERN.apply(i + skipped, length, progress);
+        if (vertical) {
+            painter.drawLine(across, start, across, end, sampler, BlendMode.SUBTRACT);
+        } else {
+            painter.drawLine(start, across, end, across, sampler, BlendMode.SUBTRACT);
+        }
+    }
+
+    // the texel under the cursor, empty off the texture
+    private Optional<Coordinates> normalize(MouseEvent e) {
+        int w = state.texture().width();
+        int h = state.texture().height();
+        int x = viewport.texelX(e.getX(), w);
+        int y = viewport.texelY(e.getY(), h);
+        if (x < 0 || x >= w || y < 0 || y >= h) {
+            return Optional.empty();
+        }
+        return Optional.of(new Coordinates(x, y));
     }
 
-    private Coordinates normalize(MouseEvent e) {
-        // todo zoom / pan
-        int x = (int) (1. * Math.min(e.getX(), display.width() - 1) / display.width() * state.texture().width());
-        int y = (int) (1. * Math.min(e.getY(), display.height() - 1) / display.height() * state.texture().height());
-        return new Coordinates(x, y);
+    // the texel under the cursor, clamped to the texture's edge; for drags that started on it
+    private Coordinates clamp(MouseEvent e) {
+        int w = state.texture().width();
+        int h = state.texture().height();
+        int x = viewport.texelX(Math.clamp(e.getX(), 0, display.width() - 1), w);
+        int y = viewport.texelY(Math.clamp(e.getY(), 0, display.height() - 1), h);
+        return new Coordinates(Math.clamp(x, 0, w - 1), Math.clamp(y, 0, h - 1));
     }
 
     private void handleGlobalActions(KeyAction keyAction) {
@@ -432,6 +630,26 @@ public class TextureEditor implements
                             default -> {}
                         }
                     }
+                    case KeyAction.Key.EQUAL -> {
+                        switch (keyAction.mods()) {
+                            case KeyAction.Modifiers m when m.ctrl() -> viewport.zoomAt(
+                                    display.width() / 2, display.height() / 2, ZOOM_STEP);
+                            default -> {}
+                        }
+                    }
+                    case KeyAction.Key.MINUS -> {
+                        switch (keyAction.mods()) {
+                            case KeyAction.Modifiers m when m.ctrl() -> viewport.zoomAt(
+                                    display.width() / 2, display.height() / 2, 1 / ZOOM_STEP);
+                            default -> {}
+                        }
+                    }
+                    case KeyAction.Key.ZERO -> {
+                        switch (keyAction.mods()) {
+                            case KeyAction.Modifiers m when m.ctrlOnly() -> viewport.reset();
+                            default -> {}
+                        }
+                    }
                     case KeyAction.Key.LOWER_A -> {
                         switch (keyAction.mods()) {
                             case KeyAction.Modifiers m when m.ctrlOnly() -> state.selection(
@@ -458,7 +676,10 @@ public class TextureEditor implements
                 .info("c: open color picker")
                 .info("/: command entry")
                 .info("CTRL+z: undo")
-                .info("CTRL+SHIFT+z: redo");
+                .info("CTRL+SHIFT+z: redo")
+                .info("CTRL+=, CTRL+-, CTRL+wheel: zoom")
+                .info("CTRL+0: reset zoom")
+                .info("wheel, SHIFT+wheel: pan");
         // todo actually implement this
     }
 
@@ -493,6 +714,7 @@ public class TextureEditor implements
                 state.texture().pixel(c, r, color);
             }
         }
+        invalidation.add(textureBounds(state.texture()));
     }
 
     private void fillPixel(PixelSelection px, Color color, boolean inverse) {
@@ -505,8 +727,10 @@ public class TextureEditor implements
                     }
                 }
             }
+            invalidation.add(textureBounds(state.texture()));
         } else {
             state.texture().pixel(px.px().x(), px.px().y(), color);
+            invalidation.add(texelBounds(px.px().x(), px.px().y(), 1, 1));
         }
     }
 
@@ -535,12 +759,14 @@ public class TextureEditor implements
                     state.texture().pixel(x, y, color);
                 }
             }
+            invalidation.add(textureBounds(state.texture()));
         } else {
             for (int y = t; y <= b; ++y) {
                 for (int x = l; x <= r; ++x) {
                     state.texture().pixel(x, y, color);
                 }
             }
+            invalidation.add(texelBounds(l, t, r - l + 1, b - t + 1));
         }
     }
 
@@ -559,5 +785,6 @@ public class TextureEditor implements
                 state.texture().pixel(px.x(), px.y(), color);
             }
         }
+        invalidation.add(textureBounds(state.texture()));
     }
 }
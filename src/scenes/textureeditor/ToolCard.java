@@ -2,21 +2,21 @@ package scenes.textureeditor;
 
 import rendering.BlendMode;
 import rendering.Color;
+import rendering.Damage;
 import rendering.PixelFilter;
 import rendering.Painter;
-import rendering.PixelRaster;
 import rendering.Printer;
 import rendering.Raster;
-import rendering.RasterPainter;
 import rendering.RasterPrinter;
 import rendering.Renderer;
 import ui.KeyAction.Key;
+import ui.Layer;
 
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+// the keymap never changes, so the card is drawn once and composited from then on
 public class ToolCard implements Renderer {
-    private final Painter                           displayPainter;
     private final int                               fontSize;
     private final int                               charSpacing;
     private final int                               cols;
@@ -24,6 +24,7 @@ public class ToolCard implements Renderer {
     private final int                               stride;
     private final int                               width;
     private final int                               height;
+    private final Layer                             layer;
     private final Raster                            card;
     private final Painter                           cardPainter;
     private final Printer                           cardPrinter;
@@ -101,7 +102,6 @@ public class ToolCard implements Renderer {
     }
 
     public ToolCard(TextureEditor editor) {
-        this.displayPainter = editor.painter();
         this.fontSize = editor.fontSize();
         this.charSpacing = editor.charSpacing();
         this.cols = grid.get(0).size();
@@ -109,19 +109,49 @@ public class ToolCard implements Renderer {
         this.stride = gridSize + padding;
         this.width = cols * stride + padding;
         this.height = rows * stride + padding;
-        this.card = new PixelRaster(width, height);
-        this.cardPainter = new RasterPainter(card);
-        this.cardPrinter = new RasterPrinter(card, editor.font());
         this.x = 0;
         this.y = editor.display().height() - height;
+        this.layer = Layer.builder()
+                .target(editor.painter())
+                .at(x, y)
+                .raster(editor.rasterFactory().create(width, height))
+                .draw(this::draw)
+                .build();
+        this.card = layer.raster();
+        this.cardPainter = layer.painter();
+        this.cardPrinter = new RasterPrinter(card, editor.font());
     }
 
     @Override
     public void render() {
+        layer.render();
+    }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        layer.render(clip);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
+    // where the card is drawn on the display
+    public Damage.Rect bounds() {
+        return layer.bounds();
+    }
+
+    // whether the next render draws the card anew
+    public boolean isDirty() {
+        return layer.isDirty();
+    }
+
+    private void draw() {
         renderPadding();
         renderGrid();
         renderKeys();
-        displayPainter.drawImg(x, y, PixelFilter.opacity(0.9).asRasterFilter().apply(card), BlendMode.OVER_PRE);
+        cardPainter.drawImg(0, 0, PixelFilter.opacity(0.9).asRasterFilter().apply(card), BlendMode.NORMAL);
     }
 
     private void renderPadding() {
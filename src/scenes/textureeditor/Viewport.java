@@ -0,0 +1,152 @@
+package scenes.textureeditor;
+
+import rendering.BlendMode;
+import rendering.Damage;
+import rendering.Painter;
+import rendering.Raster;
+
+// which part of the texture is on screen. at zoom 1 the whole texture fits the display; pan is how far the display's
+// top left corner is into the zoomed texture, in display pixels.
+class Viewport {
+    static final double MIN_ZOOM = 0.25;
+    static final double MAX_ZOOM = 64;
+
+    private final int width;
+    private final int height;
+
+    private double zoom = 1;
+    private int    panX = 0;
+    private int    panY = 0;
+
+    // texel column for each display column and texel row offset for each display row, -1 off the texture. rebuilt
+    // when the view or the texture's size changes.
+    private int[] columns;
+    private int[] rows;
+    private int   textureW;
+    private int   textureH;
+    // display region the texture covers
+    private int   minX;
+    private int   maxX;
+    private int   minY;
+    private int   maxY;
+
+    Viewport(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Viewport must be at least 1x1");
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    double zoom() {
+        return zoom;
+    }
+
+    int panX() {
+        return panX;
+    }
+
+    int panY() {
+        return panY;
+    }
+
+    // zooms by factor, keeping what's under display pixel (x, y) in place
+    void zoomAt(int x, int y, double factor) {
+        double zoomed = Math.clamp(zoom * factor, MIN_ZOOM, MAX_ZOOM);
+        panX = (int) Math.round((x + panX) * zoomed / zoom) - x;
+        panY = (int) Math.round((y + panY) * zoomed / zoom) - y;
+        zoom = zoomed;
+        columns = null;
+    }
+
+    void pan(int dx, int dy) {
+        panX += dx;
+        panY += dy;
+        columns = null;
+    }
+
+    void reset() {
+        zoom = 1;
+        panX = 0;
+        panY = 0;
+        columns = null;
+    }
+
+    // texel under display pixel x, for a texture textureW wide; off the texture when outside [0, textureW)
+    int texelX(int x, int textureW) {
+        return (int) Math.floor(1. * textureW / width / zoom * (x + panX));
+    }
+
+    int texelY(int y, int textureH) {
+        return (int) Math.floor(1. * textureH / height / zoom * (y + panY));
+    }
+
+    // display pixel where texel column x starts
+    int displayX(int x, int textureW) {
+        return (int) Math.floor(x * (1. * width / textureW) * zoom) - panX;
+    }
+
+    int displayY(int y, int textureH) {
+        return (int) Math.floor(y * (1. * height / textureH) * zoom) - panY;
+    }
+
+    // display pixels that texels [x, x + w) x [y, y + h) can show up in, with a pixel to spare on each side for
+    // rounding
+    Damage.Rect displayRect(int x, int y, int w, int h, int textureW, int textureH) {
+        int l = displayX(x, textureW);
+        int t = displayY(y, textureH);
+        return new Damage.Rect(l - 1, t - 1, displayX(x + w, textureW) - l + 2, displayY(y + h, textureH) - t + 2);
+    }
+
+    // samples the visible texels straight into the display
+    void render(Painter painter, Raster texture) {
+        render(painter, texture, new Damage.Rect(0, 0, width, height));
+    }
+
+    // same, but only the display pixels inside clip
+    void render(Painter painter, Raster texture, Damage.Rect clip) {
+        update(texture.w(), texture.h());
+        int x0 = Math.max(minX, clip.x());
+        int y0 = Math.max(minY, clip.y());
+        int x1 = Math.min(maxX, clip.x() + clip.w());
+        int y1 = Math.min(maxY, clip.y() + clip.h());
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        int[] columns = this.columns;
+        int[] rows = this.rows;
+        painter.drawImgArgb(x0, y0, x1 - x0, y1 - y0,
+                (_, x, y) -> texture.argbInt32(rows[y0 + y] + columns[x0 + x]),
+                BlendMode.OVER_PRE);
+    }
+
+    private void update(int textureW, int textureH) {
+        if (columns != null && textureW == this.textureW && textureH == this.textureH) {
+            return;
+        }
+        this.textureW = textureW;
+        this.textureH = textureH;
+        columns = new int[width];
+        rows = new int[height];
+        minX = width;
+        maxX = 0;
+        for (int x = 0; x < width; ++x) {
+            int c = texelX(x, textureW);
+            columns[x] = c >= 0 && c < textureW ? c : -1;
+            if (columns[x] >= 0) {
+                minX = Math.min(minX, x);
+                maxX = x + 1;
+            }
+        }
+        minY = height;
+        maxY = 0;
+        for (int y = 0; y < height; ++y) {
+            int r = texelY(y, textureH);
+            rows[y] = r >= 0 && r < textureH ? r * textureW : -1;
+            if (rows[y] >= 0) {
+                minY = Math.min(minY, y);
+                maxY = y + 1;
+            }
+        }
+    }
+}
@@ -4,16 +4,18 @@ import logging.LogManager;
 import logging.Logger;
 import misc.monads.Result;
 import rendering.Color;
-import rendering.PixelRaster;
+import rendering.RasterFactory;
 import scenes.textureeditor.model.EditorState;
 
 public class CmdCanvas implements Command {
     private static final Logger LOG = LogManager.instance().getThis();
 
-    private final EditorState state;
+    private final EditorState   state;
+    private final RasterFactory rasterFactory;
 
-    public CmdCanvas(EditorState state) {
+    public CmdCanvas(EditorState state, RasterFactory rasterFactory) {
         this.state = state;
+        this.rasterFactory = rasterFactory;
     }
 
     @Override
@@ -63,10 +65,9 @@ public class CmdCanvas implements Command {
             return Result.failure("Target canvas dimensions [w=%d, h=%d] must be no smaller than current: [w=%d, h=%d]"
                     .formatted(width, height, oldWidth, oldHeight));
         }
-        state.texture(new PixelRaster(width, height, (_, x, y)
-                -> x >= oldWidth || y >= oldHeight
-                ? Color.NamedColor.BLACK
-                : tx.pixel(x, y)));
+        var resized = rasterFactory.create(width, height, Color.NamedColor.BLACK);
+        resized.copyRegion(tx, 0, 0, 0, 0, oldWidth, oldHeight);
+        state.texture(resized);
         state.snapshot();
         return Result.success("Expanded canvas to [w=%d, h=%d]".formatted(width, height));
     }
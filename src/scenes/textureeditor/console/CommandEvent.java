@@ -0,0 +1,20 @@
+package scenes.textureeditor.console;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one command line run from the console
+@Name("engine.ConsoleCommand")
+@Label("Console Command")
+@Category({"Game Engine", "Console"})
+@Enabled(false)
+class CommandEvent extends Event {
+    @Label("Command")
+    String command;
+
+    @Label("Success")
+    boolean success;
+}
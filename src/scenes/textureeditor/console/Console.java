@@ -4,17 +4,16 @@ import logging.LogManager;
 import logging.Logger;
 import misc.monads.Result;
 import misc.spliterators.ChunkedSpliterator;
-import misc.spliterators.ReversedSpliterator;
 import rendering.BlendMode;
 import rendering.Color;
+import rendering.Damage;
 import rendering.Painter;
-import rendering.PixelRaster;
 import rendering.Printer;
+import rendering.RasterPrinter;
 import rendering.Renderer;
-import scenes.textureeditor.CircularBufferHistoryImpl;
-import scenes.textureeditor.History;
 import scenes.textureeditor.TextureEditor;
 import ui.KeyAction;
+import ui.Layer;
 
 import java.awt.Toolkit;
 import java.awt.datatransfer.DataFlavor;
@@ -27,7 +26,6 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -45,41 +43,52 @@ public class Console implements Renderer {
     private static final String  PROMPT                    = "$ ";
     private static final String  CURSOR                    = "_";
 
-    private record CommandAndResult(String command, String result) {
-        static CommandAndResult empty() {
-            return new CommandAndResult(null, null);
-        }
-    }
+    private static final Printer.Style[] INVERT = {Printer.BlendMode.of(BlendMode.SUBTRACT)};
+
+    private record CommandAndResult(String command, String result) {}
 
-    private final TextureEditor             editor;
-    private final Painter                   painter;
-    private final Printer                   printer;
-    private final int                       width;
-    private final int                       height;
-    private final int                       hzStride;
-    private final int                       vtStride;
-    private final int                       maxLineWidth;
-    private final int                       maxLines;
-    private final History<CommandAndResult> history;
-    private final StringBuilder             buf;
-    private final Command                   cmd;
-
-    private double vtOffset = 0;
+    private final TextureEditor                editor;
+    private final Layer                        layer;
+    private final Painter                      painter;
+    private final Printer                      printer;
+    private final int                          width;
+    private final int                          height;
+    private final int                          hzStride;
+    private final int                          vtStride;
+    private final int                          lineHeight;
+    private final int                          maxLineWidth;
+    private final int                          maxLines;
+    private final Scrollback<List<StyledChar>> scrollback;
+    private final StringBuilder                buf;
+    private final Command                      cmd;
+
+    private double          vtOffset = 0;
+    // style in effect at the end of the scrollback, which carries over into the prompt
+    private Printer.Style[] style    = INVERT;
+    // prompt line layout, or null when the buffer changed since it was last laid out
+    private Layout          prompt   = null;
 
     public Console(TextureEditor editor, int historySize) {
         this.editor = editor;
-        this.painter = editor.painter();
-        this.printer = editor.printer();
+        // drawn only when the buffer, the scrollback or the scroll position change
+        this.layer = Layer.builder()
+                .target(editor.painter())
+                .raster(editor.rasterFactory().create(editor.display().width(), editor.display().height()))
+                .draw(this::draw)
+                .build();
+        this.painter = layer.painter();
+        this.printer = new RasterPrinter(layer.raster(), editor.font());
         hzStride = editor.fontSize() + editor.charSpacing();
         vtStride = editor.fontSize() + editor.lineSpacing();
+        lineHeight = Math.max(vtStride, editor.fontSize());
         width = editor.display().width();
         height = editor.display().height();
         maxLineWidth = width / hzStride;
         maxLines = height / vtStride;
-        history = new CircularBufferHistoryImpl<>(historySize, CommandAndResult.empty());
+        scrollback = new Scrollback<>(historySize);
         buf = new StringBuilder();
         cmd = new TrimmingCommand(DelegatingCommand.builder()
-                .withCommand("canvas", new CmdCanvas(editor.state()))
+                .withCommand("canvas", new CmdCanvas(editor.state(), editor.rasterFactory()))
                 .withCommand("cd", new CmdCd(editor.state(), () -> Path.of(".")))
                 .withCommand("exit", new CmdExit())
                 .withCommand("load", new CmdLoad(editor.state(), editor.repo()))
@@ -89,7 +98,7 @@ public class Console implements Renderer {
                 .withCommand("rm", new CmdRm(editor.state()))
                 .withCommand("save", new CmdSave(editor.state(), editor.repo()))
                 .withCommand("status", new CmdStatus(editor.state(), editor.colorPicker()))
-                .withCommand("touch", new CmdTouch(editor.state(), editor.repo(), () -> new PixelRaster(
+                .withCommand("touch", new CmdTouch(editor.state(), editor.repo(), () -> editor.rasterFactory().create(
                         editor.state().texture().width(),
                         editor.state().texture().height())))
                 .build()
@@ -98,6 +107,7 @@ public class Console implements Renderer {
 
     public void accept(KeyAction keyAction) {
         vtOffset = 0;
+        layer.invalidate();
         switch (keyAction.action()) {
             case KeyAction.Action.PRESS -> {
                 if (keyAction.mods().none()) {
@@ -105,11 +115,11 @@ public class Console implements Renderer {
                         case ESCAPE -> editor.escape();
                         case BACKSPACE -> fastDeleteLast();
                         case ENTER -> {
-                            var res = cmd.run(buf.toString().split(" ")).fold(
+                            var res = run(buf.toString()).fold(
                                     s -> new CommandAndResult(buf.toString(), s),
                                     e -> new CommandAndResult(buf.toString(),
                                             AnsiColor.RED.formatted() + e + AnsiColor.NONE.formatted()));
-                            history.record(res);
+                            record(res);
                             fastClear();
                         }
                         default -> keyAction.reified().character().ifPresent(this::fastAppend);
@@ -154,9 +164,13 @@ public class Console implements Renderer {
 
     public void accept(MouseWheelEvent e) {
         vtOffset -= e.getPreciseWheelRotation();
+        layer.invalidate();
     }
 
-    private record StyledChar(char c, List<Printer.Style> styles) {}
+    private record StyledChar(char c, Printer.Style[] styles) {}
+
+    // display lines, already wrapped, and the style in effect after the last of them
+    private record Layout(List<List<StyledChar>> lines, Printer.Style[] style) {}
 
     private record AnsiSequence(int start, int end, Color color) {}
 
@@ -177,84 +191,100 @@ public class Console implements Renderer {
         return new AnsiSequence(matcher.start(), matcher.end(), color);
     }
 
+    // lays out the entry once, so rendering only has to print the lines that are on screen
+    private void record(CommandAndResult cnr) {
+        var layout = layOut(Stream.of(PROMPT + cnr.command(), cnr.result()).collect(Collectors.joining("\n")), style);
+        scrollback.add(layout.lines());
+        style = layout.style();
+        prompt = null;
+    }
+
     @Override
     public void render() {
+        layer.render();
+    }
+
+    @Override
+    public void render(Damage.Rect clip) {
+        layer.render(clip);
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
+    // where the console is drawn on the display
+    public Damage.Rect bounds() {
+        return layer.bounds();
+    }
+
+    // whether the next render draws the console anew
+    public boolean isDirty() {
+        return layer.isDirty();
+    }
+
+    private void draw() {
         renderBackground();
-        var allChars = concatAllChars();
-        var ansiSequences = computeAnsiSequences(allChars);
-        var displayLines = convertToDisplayLines(allChars, ansiSequences);
-        renderLines(displayLines);
+        if (prompt == null) {
+            prompt = layOut(PROMPT + buf + CURSOR, style);
+        }
+        int n = scrollback.lines() + prompt.lines().size();
+        // rows count from the oldest line; walk them from the bottom up, and stop once they're above the display
+        int[] row = {n};
+        for (var line : prompt.lines().reversed()) {
+            if (!renderLine(line, --row[0], n)) {
+                return;
+            }
+        }
+        scrollback.forEachNewestFirst(line -> renderLine(line, --row[0], n));
     }
 
     private void renderBackground() {
         painter.drawImg(0, 0, width, height, Color.NamedColor.BLACK.withAlpha(0.8f), BlendMode.OVER_PRE);
     }
 
-    private String concatAllChars() {
-        return Stream.concat(
-                // history, oldest first (reverse because history.past() returns newest first)
-                ReversedSpliterator.reverse(history.getPast()).stream().flatMap(cnr -> Stream.concat(
-                        Optional.ofNullable(cnr.command()).stream().map(PROMPT::concat),
-                        Optional.ofNullable(cnr.result()).stream()
-                )),
-                // current buf is last line
-                Stream.of(PROMPT + buf.toString() + CURSOR)
-        ).collect(Collectors.joining("\n"));
-    }
-
-    private ArrayList<AnsiSequence> computeAnsiSequences(String all) {
-        var ansiSequences = new ArrayList<AnsiSequence>();
-        //noinspection StatementWithEmptyBody
-        for (var ansiMatcher = ANSI_COLOR_ESCAPE_PATTERN.matcher(all);
-             ansiMatcher.find();
-             ansiSequences.addLast(parseAnsiEscape(ansiMatcher))) {}
-        return ansiSequences;
+    // returns whether any line above this one could still be visible
+    private boolean renderLine(List<StyledChar> line, int row, int n) {
+        int y = (int) ((row - (n - maxLines) + vtOffset) * vtStride);
+        if (y + lineHeight <= 0) {
+            return false;
+        }
+        if (y < height) {
+            int col = 0;
+            for (var sc : line) {
+                printer.print(sc.c(), col++ * hzStride, y, sc.styles());
+            }
+        }
+        return true;
     }
 
-    private List<List<StyledChar>> convertToDisplayLines(String allChars, List<AnsiSequence> ansiSequences) {
+    private Layout layOut(String text, Printer.Style[] style) {
+        var lines = new ArrayList<List<StyledChar>>();
+        var line = new ArrayList<StyledChar>();
         int rowI = 0;
-        int allI = -1;
-        var style = new ArrayList<Printer.Style>() {{
-            add(Printer.BlendMode.of(BlendMode.SUBTRACT));
-        }};
-        var lines = new ArrayList<List<StyledChar>>() {{
-            add(new ArrayList<>());
-        }};
-        for (char c : allChars.toCharArray()) {
-            ++allI;
-            if (!ansiSequences.isEmpty()
-                    && allI >= ansiSequences.getFirst().start()
-                    && allI < ansiSequences.getFirst().end()) {
-                // within an ANSI escape sequence; ignore it
+        var ansiMatcher = ANSI_COLOR_ESCAPE_PATTERN.matcher(text);
+        int nextEscape = ansiMatcher.find() ? ansiMatcher.start() : -1;
+        for (int i = 0; i < text.length(); ++i) {
+            if (i == nextEscape) {
+                // skip over the escape sequence, and style what follows with its color
+                var escape = parseAnsiEscape(ansiMatcher);
+                style = escape.color() == AnsiColor.NONE
+                        ? INVERT  // for "none", do invert
+                        : new Printer.Style[] {Printer.Color.of(escape.color())};
+                i = escape.end() - 1;
+                nextEscape = ansiMatcher.find() ? ansiMatcher.start() : -1;
                 continue;
             }
-            if (!ansiSequences.isEmpty() && allI == ansiSequences.getFirst().end()) {
-                // finished an escape sequence (pointing at the first char right after); update the color
-                style.clear();
-                var color = ansiSequences.removeFirst().color();
-                style.add(color == AnsiColor.NONE
-                        ? Printer.BlendMode.of(BlendMode.SUBTRACT)  // for "none", do invert
-                        : Printer.Color.of(color));
-            }
+            char c = text.charAt(i);
             switch (c) {
-                // not close to an escape sequence
-                case '\r': {
+                case '\r' -> rowI = 0;  // return carriage
+                case '\n' -> {
+                    wrap(line, lines);
+                    line = new ArrayList<>();  // start next line
                     rowI = 0;  // return carriage
-                    break;
                 }
-                case '\n': {
-                    if (!lines.getLast().isEmpty()) {  // this check prevents empty lines from being swallowed
-                        lines.addAll(
-                                ChunkedSpliterator.chunk(  // wrap the current line before committing it
-                                                lines.removeLast().iterator(), maxLineWidth, ArrayList::new)
-                                        .stream().toList());
-                    }
-                    lines.addLast(new ArrayList<>());  // start next line
-                    rowI = 0;  // return carriage
-                    break;
-                }
-                default: {
-                    var line = lines.getLast();
+                default -> {
                     var sc = new StyledChar(c, style);
                     if (rowI >= line.size()) {  // extend line
                         line.addLast(sc);
@@ -265,24 +295,29 @@ public class Console implements Renderer {
                 }
             }
         }
-        lines.addAll(
-                ChunkedSpliterator.chunk(  // don't forget to wrap the last line, even if it doesn't end with \n
-                                lines.removeLast().iterator(), maxLineWidth, ArrayList::new)
-                        .stream().toList());
-        return lines;
+        wrap(line, lines);
+        return new Layout(lines, style);
     }
 
-    private void renderLines(List<List<StyledChar>> lines) {
-        int row = 0;
-        int n = lines.size();
-        for (var line : lines) {
-            int col = 0;
-            int y = (int) ((row - (n - maxLines) + vtOffset) * vtStride);
-            for (var sc : line) {
-                printer.print(sc.c(), col++ * hzStride, y, sc.styles().toArray(Printer.Style[]::new));
-            }
-            ++row;
+    private void wrap(List<StyledChar> line, List<List<StyledChar>> lines) {
+        if (line.isEmpty()) {
+            lines.addLast(line);  // chunking would swallow empty lines
+            return;
+        }
+        lines.addAll(ChunkedSpliterator.chunk(line.iterator(), maxLineWidth, ArrayList::new).stream().toList());
+    }
+
+    private Result<String, String> run(String commandLine) {
+        var event = new CommandEvent();
+        event.begin();
+        var res = cmd.run(commandLine.split(" "));
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = commandLine;
+            event.success = res.isSuccess();
+            event.commit();
         }
+        return res;
     }
 
     private <T> Result<String, T> succeed(String fmt, Object... args) {
@@ -308,6 +343,7 @@ public class Console implements Renderer {
 
     private void fastClear() {
         buf.setLength(0);
+        prompt = null;
     }
 
     private void fastAppend(char c) {
@@ -317,12 +353,14 @@ public class Console implements Renderer {
     private void fastAppend(String str) {
         if (CHAR_ACCEPT_LIST.matcher(str).find()) {
             buf.append(str);
+            prompt = null;
         }
     }
 
     private void fastDeleteLast() {
         if (!buf.isEmpty()) {
             buf.setLength(buf.length() - 1);
+            prompt = null;
         }
     }
 }
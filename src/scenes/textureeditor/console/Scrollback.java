@@ -0,0 +1,51 @@
+package scenes.textureeditor.console;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+// the last maxEntries entries of console output, each already broken into display lines
+class Scrollback<L> {
+    private final int                 maxEntries;
+    private final ArrayDeque<List<L>> entries;
+
+    private int lines = 0;
+
+    Scrollback(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be a positive integer");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new ArrayDeque<>(maxEntries);
+    }
+
+    void add(List<L> entry) {
+        if (entries.size() == maxEntries) {
+            lines -= entries.removeFirst().size();
+        }
+        entries.addLast(entry);
+        lines += entry.size();
+    }
+
+    int entries() {
+        return entries.size();
+    }
+
+    // total display lines across all entries
+    int lines() {
+        return lines;
+    }
+
+    // visits lines from the newest back, for as long as visitor returns true
+    void forEachNewestFirst(Predicate<L> visitor) {
+        for (Iterator<List<L>> it = entries.descendingIterator(); it.hasNext(); ) {
+            var entry = it.next();
+            for (int i = entry.size() - 1; i >= 0; --i) {
+                if (!visitor.test(entry.get(i))) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one run of a PeriodicExecutor's runnable. disabled unless a recording turns it on, e.g.
+// -XX:StartFlightRecording:settings=profile,+engine.Frame#enabled=true
+@Name("engine.Frame")
+@Label("Frame")
+@Category({"Game Engine", "Timing"})
+@Enabled(false)
+class FrameEvent extends Event {
+    @Label("Active")
+    @Description("False when an on-demand executor ran only because its max latency passed")
+    boolean active;
+}
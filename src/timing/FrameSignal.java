@@ -0,0 +1,39 @@
+package timing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// lets any thread wake up a loop that's waiting for something to do
+public class FrameSignal {
+    private final ReentrantLock lock     = new ReentrantLock();
+    private final Condition     signaled = lock.newCondition();
+    private       boolean       pending  = false;
+
+    public void signal() {
+        lock.lock();
+        try {
+            pending = true;
+            signaled.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // waits until signaled or the timeout passes, and returns whether it was signaled. consumes the signal, and
+    // returns immediately if one arrived since the last wait.
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!pending && nanos > 0) {
+                nanos = signaled.awaitNanos(nanos);
+            }
+            var res = pending;
+            pending = false;
+            return res;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
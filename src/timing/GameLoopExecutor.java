@@ -0,0 +1,182 @@
+package timing;
+
+import logging.LogManager;
+import logging.Logger;
+
+import java.time.Duration;
+
+// fixed-timestep game loop. the simulation advances in steps of exactly 1 / updateHertz seconds, as many as it takes
+// to catch up with real time (but no more than maxCatchUpSteps per frame), then renders once with how far real time
+// is into the next step, for interpolating between the last two simulation states.
+public class GameLoopExecutor {
+    private static final Logger   LOG          = LogManager.instance().getThis();
+    private static final Duration LOG_INTERVAL = Duration.ofSeconds(30);
+
+    @FunctionalInterface
+    public interface Update {
+        void update(double dtSeconds);
+    }
+
+    @FunctionalInterface
+    public interface Render {
+        // alpha in [0, 1): fraction of a step that real time is ahead of the simulation
+        void render(double alpha);
+    }
+
+    private final Update update;
+    private final Render render;
+    private final long   stepNanos;
+    private final double stepSeconds;
+    private final long   renderPeriodNanos;
+    private final int    maxCatchUpSteps;
+    private final Pacer  pacer;
+
+    // nanoTime can be negative, so the first frame is tracked separately
+    private boolean started      = false;
+    private long    previous     = 0;
+    private long    accumulator  = 0;
+    private long    updates      = 0;
+    private long    renders      = 0;
+    private long    droppedSteps = 0;
+
+    private GameLoopExecutor(Update update, Render render, int updateHertz, int renderHertz, int maxCatchUpSteps,
+                             Pacer pacer) {
+        this.update = update;
+        this.render = render;
+        this.stepNanos = Duration.ofSeconds(1).dividedBy(updateHertz).toNanos();
+        this.stepSeconds = stepNanos / 1e9;
+        this.renderPeriodNanos = Duration.ofSeconds(1).dividedBy(renderHertz).toNanos();
+        this.maxCatchUpSteps = maxCatchUpSteps;
+        this.pacer = pacer;
+        LOG.info("Will update at %d hz (at most %d steps per frame) and render at up to %d hz",
+                updateHertz, maxCatchUpSteps, renderHertz);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Update  update;
+        private Render  render;
+        private Integer updateHertz;
+        private Integer renderHertz;
+        private int     maxCatchUpSteps = 5;
+        private Pacer   pacer;
+
+        private Builder() {}
+
+        public Builder update(Update update) {
+            this.update = update;
+            return this;
+        }
+
+        public Builder render(Render render) {
+            this.render = render;
+            return this;
+        }
+
+        public Builder updateHertz(int hertz) {
+            if (hertz < 1) {
+                throw new IllegalArgumentException("Update frequency must be a positive integer");
+            }
+            this.updateHertz = hertz;
+            return this;
+        }
+
+        // caps how often frames are rendered; under load it will drop below this, while updates keep their rate
+        public Builder renderHertz(int hertz) {
+            if (hertz < 1) {
+                throw new IllegalArgumentException("Render frequency must be a positive integer");
+            }
+            this.renderHertz = hertz;
+            return this;
+        }
+
+        // past this many steps in one frame, the simulation gives up on catching up and falls behind real time,
+        // rather than spending ever longer frames on updates
+        public Builder maxCatchUpSteps(int steps) {
+            if (steps < 1) {
+                throw new IllegalArgumentException("Max catch-up steps must be a positive integer");
+            }
+            this.maxCatchUpSteps = steps;
+            return this;
+        }
+
+        public Builder pacer(Pacer pacer) {
+            this.pacer = pacer;
+            return this;
+        }
+
+        public GameLoopExecutor build() {
+            if (update == null) {
+                throw new IllegalArgumentException("update");
+            }
+            if (render == null) {
+                throw new IllegalArgumentException("render");
+            }
+            if (updateHertz == null) {
+                throw new IllegalArgumentException("updateHertz");
+            }
+            if (renderHertz == null) {
+                renderHertz = updateHertz;
+            }
+            if (pacer == null) {
+                pacer = Pacer.SLEEP;
+            }
+            return new GameLoopExecutor(update, render, updateHertz, renderHertz, maxCatchUpSteps, pacer);
+        }
+    }
+
+    public void execute() throws InterruptedException {
+        long next = System.nanoTime();
+        long nextLog = next + LOG_INTERVAL.toNanos();
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            long now = System.nanoTime();
+            frame(now);
+            if (now - nextLog >= 0) {
+                LOG.info("%d updates, %d renders, %d dropped steps", updates, renders, droppedSteps);
+                nextLog = now + LOG_INTERVAL.toNanos();
+            }
+            next = Math.max(next + renderPeriodNanos, now);
+            pacer.awaitNanos(next);
+        }
+    }
+
+    // runs one frame as of nowNanos (on the System.nanoTime timeline): catch-up updates, then a render
+    void frame(long nowNanos) {
+        if (started) {
+            accumulator += nowNanos - previous;
+        }
+        started = true;
+        previous = nowNanos;
+        int steps = 0;
+        while (accumulator >= stepNanos && steps < maxCatchUpSteps) {
+            update.update(stepSeconds);
+            accumulator -= stepNanos;
+            ++steps;
+        }
+        if (accumulator >= stepNanos) {
+            // spiral of death; drop the backlog instead of carrying it into the next frame
+            LOG.debug("Dropping %d steps after %d catch-up steps", accumulator / stepNanos, steps);
+            droppedSteps += accumulator / stepNanos;
+            accumulator %= stepNanos;
+        }
+        updates += steps;
+        ++renders;
+        render.render((double) accumulator / stepNanos);
+    }
+
+    public long updates() {
+        return updates;
+    }
+
+    public long renders() {
+        return renders;
+    }
+
+    public long droppedSteps() {
+        return droppedSteps;
+    }
+}
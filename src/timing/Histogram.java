@@ -0,0 +1,82 @@
+package timing;
+
+import java.util.Arrays;
+
+// counts non-negative long values (typically nanoseconds) in logarithmic buckets: SUB_BUCKETS linear buckets per
+// power of two, so any percentile is reported to within 1 / SUB_BUCKETS of the true value. recording is constant
+// time and never allocates.
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS         = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    public record Snapshot(long count, long p50, long p95, long p99, long max) {
+    }
+
+    private final long[] counts = new long[BUCKETS];
+    private       long   count  = 0;
+    private       long   max    = 0;
+
+    public synchronized void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative");
+        }
+        ++counts[index(value)];
+        ++count;
+        max = Math.max(max, value);
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized long max() {
+        return max;
+    }
+
+    // the smallest value that at least percentile % of recorded values are at or below, rounded up to its bucket
+    // (but never past the max); 0 if nothing was recorded
+    public synchronized long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be within [0, 100]");
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100. * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && count > 0; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highest(i), max);
+            }
+        }
+        return 0;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(count, percentile(50), percentile(95), percentile(99), max);
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    // values below SUB_BUCKETS get a bucket each; above, the top SUB_BUCKET_BITS + 1 bits pick the bucket
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - 1 - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // the highest value that lands in bucket index
+    static long highest(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
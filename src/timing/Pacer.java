@@ -0,0 +1,42 @@
+package timing;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+// how a loop waits for its next deadline, on the System.nanoTime timeline
+@FunctionalInterface
+public interface Pacer {
+    void awaitNanos(long deadline) throws InterruptedException;
+
+    // never waits, so a paced loop runs as fast as it can
+    Pacer NONE = _ -> {};
+
+    // whole milliseconds of Thread.sleep, rounded down; can wake up to a millisecond (plus scheduler slack) early
+    Pacer SLEEP = deadline -> {
+        long ms = (deadline - System.nanoTime()) / 1_000_000;
+        if (ms > 0) {
+            Thread.sleep(ms);
+        }
+    };
+
+    // parks until spinBudget before the deadline, then spins the rest of the way. bigger budgets absorb more
+    // scheduler wake-up latency at the cost of burning that much cpu every frame.
+    static Pacer parkSpin(Duration spinBudget) {
+        if (spinBudget.isNegative()) {
+            throw new IllegalArgumentException("Spin budget must not be negative");
+        }
+        long budget = spinBudget.toNanos();
+        return deadline -> {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > budget) {
+                LockSupport.parkNanos(remaining - budget);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            while (deadline - System.nanoTime() > 0) {
+                Thread.onSpinWait();
+            }
+        };
+    }
+}
@@ -5,97 +5,289 @@ import logging.Logger;
 
 import java.time.Clock;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.DoubleStream;
 
 public class PeriodicExecutor {
     private static final Logger LOG             = LogManager.instance().getThis();
     private static final int    LOOKBEHIND_SIZE = 100;
 
-    private final Duration period;
-    private final Clock    clock;
-    private final Runnable runnable;
-    private final Stats    stats;
+    private final Duration    period;
+    private final Clock       clock;
+    private final Runnable    runnable;
+    private final FrameSignal signal;
+    private final Duration    maxLatency;
+    private final Pacer       pacer;
+    private final Stats       stats;
 
     public PeriodicExecutor(int hertz, Clock clock, Runnable runnable) {
+        this(hertz, clock, runnable, null, null, null);
+    }
+
+    private PeriodicExecutor(int hertz, Clock clock, Runnable runnable, FrameSignal signal, Duration maxLatency,
+                             Pacer pacer) {
         this.period = Duration.ofSeconds(1).dividedBy(hertz);
         this.clock = clock;
         this.runnable = runnable;
+        this.signal = signal;
+        this.maxLatency = maxLatency;
+        this.pacer = pacer;
         this.stats = new Stats(LOOKBEHIND_SIZE);
         LOG.info("Will execute %s at a frequency of %d hz (period of %s)", runnable, hertz, period);
-        LOG.info("Using a lookbehind window of %d executions for drift correction", LOOKBEHIND_SIZE);
+        if (signal != null) {
+            LOG.info("Executing on demand, at least every %s", maxLatency);
+        }
+        if (pacer != null) {
+            LOG.info("Pacing against System.nanoTime");
+        } else if (signal == null) {
+            LOG.info("Using a lookbehind window of %d executions for drift correction", LOOKBEHIND_SIZE);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Integer     hertz;
+        private Clock       clock;
+        private Runnable    runnable;
+        private FrameSignal signal;
+        private Duration    maxLatency;
+        private Pacer       pacer;
+
+        private Builder() {}
+
+        public Builder hertz(int hertz) {
+            if (hertz < 1) {
+                throw new IllegalArgumentException("Frequency must be a positive integer");
+            }
+            this.hertz = hertz;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder runnable(Runnable runnable) {
+            this.runnable = runnable;
+            return this;
+        }
+
+        // runs only once signaled (still at most at the configured frequency), or when maxLatency passes without one.
+        // combines with pacer, which then keeps signaled runs on its schedule.
+        public Builder onDemand(FrameSignal signal, Duration maxLatency) {
+            if (maxLatency.isNegative() || maxLatency.isZero()) {
+                throw new IllegalArgumentException("Max latency must be positive");
+            }
+            this.signal = signal;
+            this.maxLatency = maxLatency;
+            return this;
+        }
+
+        // schedules runs on System.nanoTime and waits with pacer; without one, waits are whole milliseconds off the clock
+        public Builder pacer(Pacer pacer) {
+            this.pacer = pacer;
+            return this;
+        }
+
+        public PeriodicExecutor build() {
+            if (hertz == null) {
+                throw new IllegalArgumentException("hertz");
+            }
+            if (clock == null) {
+                throw new IllegalArgumentException("clock");
+            }
+            if (runnable == null) {
+                throw new IllegalArgumentException("runnable");
+            }
+            return new PeriodicExecutor(hertz, clock, runnable, signal, maxLatency, pacer);
+        }
     }
 
     public void execute() throws InterruptedException {
+        if (signal != null) {
+            executeOnDemand();
+            return;
+        }
+        if (pacer != null) {
+            executePaced();
+            return;
+        }
         var prev = clock.instant();
-        runnable.run();
+        run(true);
         //noinspection InfiniteLoopStatement
         while (true) {
             var now = clock.instant();
-            var wait = (long) (period.minus(Duration.between(prev, now)).toMillis() - stats.driftMs);
+            double driftMs = stats.driftMs();
+            var wait = (long) (period.minus(Duration.between(prev, now)).toMillis() - driftMs);
             if (wait > 0) {
-                LOG.debug("sleeping %d ms (adjusted %+.2f ms for drift)", wait, stats.driftMs);
+                LOG.debug("sleeping %d ms (adjusted %+.2f ms for drift)", wait, driftMs);
                 //noinspection BusyWait
                 Thread.sleep(wait);
                 now = clock.instant();  // update if we waited
             }
-            runnable.run();
-            stats.add(now);
+            stats.frame(System.nanoTime(), true);
+            run(true);
             prev = now;
         }
     }
 
+    // runs on a fixed schedule of deadlines, so waking late for one frame doesn't push back the ones after it
+    private void executePaced() throws InterruptedException {
+        long periodNanos = period.toNanos();
+        long next = System.nanoTime();
+        run(true);
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            next += periodNanos;
+            long late = System.nanoTime() - next;
+            if (late > periodNanos) {
+                // more than a frame behind; catching up would mean running back to back, so start over from now
+                LOG.debug("%.2f ms behind schedule, resetting", late / 1e6);
+                next += late;
+            }
+            pacer.awaitNanos(next);
+            stats.frame(System.nanoTime(), true);
+            run(true);
+        }
+    }
+
+    // the same deadline schedule as executePaced, except each run also waits for a signal (or max latency)
+    private void executeOnDemand() throws InterruptedException {
+        var pacer = this.pacer == null ? Pacer.SLEEP : this.pacer;
+        long periodNanos = period.toNanos();
+        long next = System.nanoTime();
+        run(true);
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            next += periodNanos;
+            long late = System.nanoTime() - next;
+            if (late > periodNanos) {
+                // more than a frame behind, usually from waiting for a signal; start over from now rather than run
+                // back to back
+                next += late;
+            }
+            // cap the frequency, then wait for something to do
+            pacer.awaitNanos(next);
+            boolean active = signal.await(maxLatency.toNanos(), TimeUnit.NANOSECONDS);
+            long start = System.nanoTime();
+            // idle runs, and runs that waited for a signal past their deadline, say nothing about frame pacing
+            stats.frame(start, active && start - next <= periodNanos);
+            stats.count(active);
+            run(active);
+        }
+    }
+
+    private void run(boolean active) {
+        var event = new FrameEvent();
+        event.begin();
+        runnable.run();
+        event.end();
+        if (event.shouldCommit()) {
+            event.active = active;
+            event.commit();
+        }
+    }
+
+    // nanosecond intervals between the starts of consecutive runs, over all runs so far
+    public Histogram.Snapshot frameTimes() {
+        return stats.frameTimes.snapshot();
+    }
+
+    // mean and standard deviation of the interval between runs, over the last LOOKBEHIND_SIZE runs
+    public double meanPeriodMs() {
+        return stats.meanMs();
+    }
+
+    public double periodStdevMs() {
+        return stats.stdevMs();
+    }
+
+    // on demand, runs that were signaled and runs that only happened because max latency passed, not counting the
+    // first run; both stay 0 otherwise
+    public long activeRuns() {
+        return stats.activeRuns();
+    }
+
+    public long idleRuns() {
+        return stats.idleRuns();
+    }
+
     private class Stats {
-        private final Deque<Instant>  rWindow       = new LinkedList<>();
-        private final Deque<Duration> dWindow       = new LinkedList<>();
-        private final int             maxSize;
-        private       double          periodMeanMs  = period.toMillis();
-        private       double          periodHzMean  = 1_000. / periodMeanMs;
-        private       double          periodMsStdev = 0.;
-        private       double          driftMs       = 0.;
-        private       double          driftPct      = 0.;
+        private final RollingStats periods;
+        private final Histogram    frameTimes = new Histogram();
+        private       boolean      started    = false;
+        private       long         lastFrame  = 0;
+        private       long         activeRuns = 0;
+        private       long         idleRuns   = 0;
 
         private Stats(int maxSize) {
-            this.maxSize = maxSize;
+            this.periods = new RollingStats(maxSize);
+            // daemon, so it doesn't keep the vm alive once the loop is done
             //noinspection resource
-            new ScheduledThreadPoolExecutor(1)
+            new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().daemon().factory())
                     .scheduleAtFixedRate(this::log, 0, 30, TimeUnit.SECONDS);
         }
 
-        private void add(Instant instant) {
-            if (rWindow.size() > 1) {
-                dWindow.add(Duration.between(rWindow.peekLast(), instant));
+        // measured runs add the interval since the run before them
+        private synchronized void frame(long startNanos, boolean measured) {
+            if (started && measured) {
+                long interval = startNanos - lastFrame;
+                periods.add(interval);
+                frameTimes.record(interval);
             }
-            rWindow.add(instant);
-            if (rWindow.size() > maxSize) {
-                rWindow.poll();
-                dWindow.poll();
+            started = true;
+            lastFrame = startNanos;
+        }
+
+        // on demand, runs are active when signaled and idle when they only happened because max latency passed
+        private synchronized void count(boolean active) {
+            if (active) {
+                ++activeRuns;
+            } else {
+                ++idleRuns;
             }
-            recompute();
         }
 
-        private void log() {
-            LOG.info("mean %.2f ms between runs (%.2f hz). std deviation %.2f ms. drift %+.2f ms (%+.2f%%).",
-                    periodMeanMs, periodHzMean, periodMsStdev, driftMs, driftPct);
+        private synchronized long activeRuns() {
+            return activeRuns;
+        }
+
+        private synchronized long idleRuns() {
+            return idleRuns;
         }
 
-        private void recompute() {
-            assert !rWindow.isEmpty();
-            periodMeanMs = Duration.between(rWindow.peek(), rWindow.getLast()).toMillis() / (rWindow.size() - 1.);
-            periodHzMean = 1_000. / periodMeanMs;
-            periodMsStdev = stdev(dWindow.stream().mapToDouble(Duration::toMillis), periodMeanMs);
-            driftMs = periodMeanMs - period.toMillis();
-            driftPct = 100. * driftMs / (period.toMillis());
+        private synchronized double meanMs() {
+            return periods.size() == 0 ? period.toNanos() / 1e6 : periods.mean() / 1e6;
         }
 
-        private static double stdev(DoubleStream samples, double mean) {
-            return Math.sqrt(samples
-                    .map(s -> Math.pow(s - mean, 2))
-                    .average().orElse(0.));
+        private synchronized double stdevMs() {
+            return periods.stdev() / 1e6;
+        }
+
+        private double driftMs() {
+            return meanMs() - period.toNanos() / 1e6;
+        }
+
+        private void log() {
+            double meanMs = meanMs();
+            double driftMs = driftMs();
+            LOG.info("mean %.2f ms between runs (%.2f hz). std deviation %.2f ms. drift %+.2f ms (%+.2f%%).",
+                    meanMs, 1_000. / meanMs, stdevMs(), driftMs, 100. * driftMs / (period.toNanos() / 1e6));
+            var frames = frameTimes.snapshot();
+            if (frames.count() > 0) {
+                LOG.info("frame times over %d runs: p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms",
+                        frames.count(), frames.p50() / 1e6, frames.p95() / 1e6, frames.p99() / 1e6,
+                        frames.max() / 1e6);
+            }
+            if (signal != null) {
+                synchronized (this) {
+                    LOG.info("%d active runs, %d idle runs", activeRuns, idleRuns);
+                }
+            }
         }
     }
 }
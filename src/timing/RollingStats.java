@@ -0,0 +1,53 @@
+package timing;
+
+// mean and variance over the last capacity samples, updated in constant time per sample: a ring of raw samples
+// remembers what falls out of the window, and welford's update is applied in reverse for it.
+public class RollingStats {
+    private final long[] samples;
+    private       int    size = 0;
+    private       int    next = 0;
+    private       double mean = 0.;
+    private       double m2   = 0.;  // sum of squared deviations from the mean
+
+    public RollingStats(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be a positive integer");
+        }
+        this.samples = new long[capacity];
+    }
+
+    public void add(long sample) {
+        if (size < samples.length) {
+            ++size;
+            double delta = sample - mean;
+            mean += delta / size;
+            m2 += delta * (sample - mean);
+        } else {
+            // the window is full; slide it by swapping the oldest sample for the new one
+            long oldest = samples[next];
+            double prevMean = mean;
+            mean += (double) (sample - oldest) / size;
+            m2 += (sample - oldest) * (sample - mean + oldest - prevMean);
+            m2 = Math.max(0., m2);  // rounding can take it a hair below zero for constant samples
+        }
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    // population variance of the samples in the window
+    public double variance() {
+        return size == 0 ? 0. : m2 / size;
+    }
+
+    public double stdev() {
+        return Math.sqrt(variance());
+    }
+}
@@ -0,0 +1,141 @@
+package ui;
+
+import logging.LogManager;
+import logging.Logger;
+
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// forwards input events to a listener, logging each one to out with the time since the previous one, so that
+// InputReplayer can feed the same session to a scene later. entered/exited events aren't recorded.
+//
+// format: VERSION_BLOB, then per event the awt event id (short), microseconds since the previous event (int), and
+//   key events: key code (short), key char (char), key location (byte), extended modifiers (int),
+//               locking keys (byte, CAPS_LOCK set when caps lock was on)
+//   mouse events: x (short), y (short), button (byte), click count (byte), extended modifiers (int),
+//                 and for wheel events the precise wheel rotation (double)
+public class InputRecorder implements KeyListener, MouseListener, MouseMotionListener, MouseWheelListener {
+    private static final Logger LOG = LogManager.instance().getThis();
+
+    static final byte[] VERSION_BLOB = "INPUT.2".getBytes(StandardCharsets.UTF_8);
+    static final int    CAPS_LOCK    = 1;
+
+    private final Object           listener;
+    private final DataOutputStream out;
+    private       long             previous;
+
+    public InputRecorder(Object listener, OutputStream out) throws IOException {
+        this.listener = listener;
+        this.out = new DataOutputStream(out);
+        this.out.write(VERSION_BLOB);
+        this.out.flush();
+        this.previous = System.nanoTime();
+    }
+
+    @Override
+    public void keyTyped(KeyEvent e) {
+        record(e);
+        if (listener instanceof KeyListener kl) kl.keyTyped(e);
+    }
+
+    @Override
+    public void keyPressed(KeyEvent e) {
+        record(e);
+        if (listener instanceof KeyListener kl) kl.keyPressed(e);
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        record(e);
+        if (listener instanceof KeyListener kl) kl.keyReleased(e);
+    }
+
+    @Override
+    public void mouseClicked(MouseEvent e) {
+        record(e);
+        if (listener instanceof MouseListener ml) ml.mouseClicked(e);
+    }
+
+    @Override
+    public void mousePressed(MouseEvent e) {
+        record(e);
+        if (listener instanceof MouseListener ml) ml.mousePressed(e);
+    }
+
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        record(e);
+        if (listener instanceof MouseListener ml) ml.mouseReleased(e);
+    }
+
+    @Override
+    public void mouseEntered(MouseEvent e) {
+        if (listener instanceof MouseListener ml) ml.mouseEntered(e);
+    }
+
+    @Override
+    public void mouseExited(MouseEvent e) {
+        if (listener instanceof MouseListener ml) ml.mouseExited(e);
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        record(e);
+        if (listener instanceof MouseMotionListener mml) mml.mouseDragged(e);
+    }
+
+    @Override
+    public void mouseMoved(MouseEvent e) {
+        record(e);
+        if (listener instanceof MouseMotionListener mml) mml.mouseMoved(e);
+    }
+
+    @Override
+    public void mouseWheelMoved(MouseWheelEvent e) {
+        record(e);
+        if (listener instanceof MouseWheelListener mwl) mwl.mouseWheelMoved(e);
+    }
+
+    private synchronized void record(InputEvent e) {
+        long now = System.nanoTime();
+        try {
+            out.writeShort(e.getID());
+            out.writeInt((int) Math.min(Integer.MAX_VALUE, (now - previous) / 1_000));
+            switch (e) {
+                case KeyEvent key -> {
+                    out.writeShort(key.getKeyCode());
+                    out.writeChar(key.getKeyChar());
+                    out.writeByte(key.getKeyLocation());
+                    out.writeInt(key.getModifiersEx());
+                    out.writeByte(KeyAction.capsLock(key) ? CAPS_LOCK : 0);
+                }
+                case MouseEvent mouse -> {
+                    out.writeShort(mouse.getX());
+                    out.writeShort(mouse.getY());
+                    out.writeByte(mouse.getButton());
+                    out.writeByte(mouse.getClickCount());
+                    out.writeInt(mouse.getModifiersEx());
+                    if (mouse instanceof MouseWheelEvent wheel) {
+                        out.writeDouble(wheel.getPreciseWheelRotation());
+                    }
+                }
+                default -> throw new IllegalArgumentException(e.toString());
+            }
+            // the window closes by exiting the vm, so don't hold anything back
+            out.flush();
+        } catch (IOException ex) {
+            LOG.error(ex, "Failed to record %s", e);
+        }
+        previous = now;
+    }
+}
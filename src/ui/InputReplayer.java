@@ -0,0 +1,138 @@
+package ui;
+
+import misc.monads.Result;
+import timing.Pacer;
+
+import java.awt.Component;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// plays back what an InputRecorder logged, as awt events, without a window
+public class InputReplayer {
+    // awt events need a source; listeners here never look at it
+    private static final Component SOURCE = new Component() {};
+    private static final Pacer     PACER  = Pacer.parkSpin(Duration.ofMillis(1));
+
+    private record Timed(long offsetNanos, InputEvent event) {}
+
+    private final List<Timed> events;
+
+    private InputReplayer(List<Timed> events) {
+        this.events = events;
+    }
+
+    public static Result<InputReplayer, Exception> read(InputStream is) {
+        try {
+            var in = new DataInputStream(is);
+            var blob = in.readNBytes(InputRecorder.VERSION_BLOB.length);
+            if (!Arrays.equals(InputRecorder.VERSION_BLOB, blob)) {
+                return Result.failure(new IllegalArgumentException("Not an input recording"));
+            }
+            var events = new ArrayList<Timed>();
+            long offset = 0;
+            while (true) {
+                int id;
+                try {
+                    id = in.readShort();
+                } catch (EOFException _) {
+                    break;
+                }
+                offset += in.readInt() * 1_000L;
+                events.add(new Timed(offset, readEvent(in, id, offset)));
+            }
+            return Result.success(new InputReplayer(List.copyOf(events)));
+        } catch (IOException e) {
+            return Result.failure(e);
+        }
+    }
+
+    private static InputEvent readEvent(DataInputStream in, int id, long offsetNanos) throws IOException {
+        long when = offsetNanos / 1_000_000;
+        return switch (id) {
+            case KeyEvent.KEY_PRESSED, KeyEvent.KEY_RELEASED, KeyEvent.KEY_TYPED -> {
+                int keyCode = in.readShort();
+                char keyChar = in.readChar();
+                int location = in.readByte();
+                int modifiers = in.readInt();
+                boolean capsLock = (in.readByte() & InputRecorder.CAPS_LOCK) != 0;
+                yield new ReplayedKeyEvent(SOURCE, id, when, modifiers, keyCode, keyChar, location, capsLock);
+            }
+            case MouseEvent.MOUSE_PRESSED, MouseEvent.MOUSE_RELEASED, MouseEvent.MOUSE_CLICKED,
+                 MouseEvent.MOUSE_DRAGGED, MouseEvent.MOUSE_MOVED, MouseEvent.MOUSE_WHEEL -> {
+                int x = in.readShort();
+                int y = in.readShort();
+                int button = in.readByte();
+                int clickCount = in.readByte();
+                int modifiers = in.readInt();
+                if (id != MouseEvent.MOUSE_WHEEL) {
+                    yield new MouseEvent(SOURCE, id, when, modifiers, x, y, clickCount, false, button);
+                }
+                double rotation = in.readDouble();
+                yield new MouseWheelEvent(SOURCE, id, when, modifiers, x, y, x, y, clickCount, false,
+                        MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, (int) rotation, rotation);
+            }
+            default -> throw new IOException("Unknown event id " + id);
+        };
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    // replays every event into listener, calling afterEach after each one (e.g. to render a frame). at recorded
+    // speed, events are spaced the way they were recorded; otherwise they go back to back.
+    public void replay(Object listener, boolean recordedSpeed, Runnable afterEach) throws InterruptedException {
+        long start = System.nanoTime();
+        for (var timed : events) {
+            if (recordedSpeed) {
+                PACER.awaitNanos(start + timed.offsetNanos());
+            }
+            dispatch(listener, timed.event());
+            afterEach.run();
+        }
+    }
+
+    private static void dispatch(Object listener, InputEvent event) {
+        switch (event) {
+            case KeyEvent e when listener instanceof KeyListener kl -> {
+                switch (e.getID()) {
+                    case KeyEvent.KEY_PRESSED -> kl.keyPressed(e);
+                    case KeyEvent.KEY_RELEASED -> kl.keyReleased(e);
+                    case KeyEvent.KEY_TYPED -> kl.keyTyped(e);
+                }
+            }
+            case MouseWheelEvent e when listener instanceof MouseWheelListener mwl -> mwl.mouseWheelMoved(e);
+            case MouseEvent e when e.getID() == MouseEvent.MOUSE_DRAGGED || e.getID() == MouseEvent.MOUSE_MOVED -> {
+                if (listener instanceof MouseMotionListener mml) {
+                    if (e.getID() == MouseEvent.MOUSE_DRAGGED) {
+                        mml.mouseDragged(e);
+                    } else {
+                        mml.mouseMoved(e);
+                    }
+                }
+            }
+            case MouseEvent e when listener instanceof MouseListener ml -> {
+                switch (e.getID()) {
+                    case MouseEvent.MOUSE_PRESSED -> ml.mousePressed(e);
+                    case MouseEvent.MOUSE_RELEASED -> ml.mouseReleased(e);
+                    case MouseEvent.MOUSE_CLICKED -> ml.mouseClicked(e);
+                }
+            }
+            default -> {}
+        }
+    }
+}
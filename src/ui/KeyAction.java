@@ -1,5 +1,6 @@
 package ui;
 
+import java.awt.GraphicsEnvironment;
 import java.awt.Toolkit;
 import java.awt.event.KeyEvent;
 import java.util.Optional;
@@ -118,7 +119,7 @@ public record KeyAction(Key raw,
         var shifted = awt.isShiftDown()
                 ? raw.shift()
                 : raw;
-        var reified = Toolkit.getDefaultToolkit().getLockingKeyState(VK_CAPS_LOCK)
+        var reified = capsLock(awt)
                 ? shifted.caps()
                 : shifted;
         var mods = Modifiers.fromAwt(awt);
@@ -126,6 +127,14 @@ public record KeyAction(Key raw,
         return new KeyAction(raw, reified, action, mods);
     }
 
+    // replayed events carry the state they were recorded with; otherwise ask the keyboard, if there is one
+    static boolean capsLock(KeyEvent awt) {
+        if (awt instanceof ReplayedKeyEvent replayed) {
+            return replayed.capsLock();
+        }
+        return !GraphicsEnvironment.isHeadless() && Toolkit.getDefaultToolkit().getLockingKeyState(VK_CAPS_LOCK);
+    }
+
     public enum Key {
         ESCAPE,
         F1,
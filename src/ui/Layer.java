@@ -0,0 +1,154 @@
+package ui;
+
+import rendering.BlendMode;
+import rendering.Color;
+import rendering.Damage;
+import rendering.Painter;
+import rendering.Raster;
+import rendering.RasterPainter;
+import rendering.Renderer;
+
+// offscreen layer for a retained-mode widget. the widget draws into it only after its state changed (see invalidate);
+// every frame in between just composites what it drew last time, with one blit.
+public class Layer implements Renderer {
+    private static final int NONE = Color.NamedColor.NONE.argbInt32();
+
+    private final Painter   target;
+    private final int       x;
+    private final int       y;
+    private final Raster    raster;
+    private final Painter   painter;
+    private final BlendMode blendMode;
+    private final Runnable  draw;
+
+    private boolean dirty   = true;
+    private long    redraws = 0;
+
+    private Layer(Painter target, int x, int y, Raster raster, BlendMode blendMode, Runnable draw) {
+        this.target = target;
+        this.x = x;
+        this.y = y;
+        this.raster = raster;
+        this.painter = new RasterPainter(raster);
+        this.blendMode = blendMode;
+        this.draw = draw;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Painter   target;
+        private int       x = 0;
+        private int       y = 0;
+        private Raster    raster;
+        private BlendMode blendMode;
+        private Runnable  draw;
+
+        private Builder() {}
+
+        // where the layer is composited
+        public Builder target(Painter target) {
+            this.target = target;
+            return this;
+        }
+
+        // the layer's top left corner on the target
+        public Builder at(int x, int y) {
+            this.x = x;
+            this.y = y;
+            return this;
+        }
+
+        public Builder raster(Raster raster) {
+            this.raster = raster;
+            return this;
+        }
+
+        public Builder blendMode(BlendMode blendMode) {
+            this.blendMode = blendMode;
+            return this;
+        }
+
+        // draws the widget into the layer's raster, in layer coordinates. the raster starts out transparent.
+        public Builder draw(Runnable draw) {
+            this.draw = draw;
+            return this;
+        }
+
+        public Layer build() {
+            if (target == null) {
+                throw new IllegalArgumentException("target");
+            }
+            if (raster == null) {
+                throw new IllegalArgumentException("raster");
+            }
+            if (draw == null) {
+                throw new IllegalArgumentException("draw");
+            }
+            if (blendMode == null) {
+                blendMode = BlendMode.OVER_PRE;
+            }
+            return new Layer(target, x, y, raster, blendMode, draw);
+        }
+    }
+
+    public Raster raster() {
+        return raster;
+    }
+
+    public Painter painter() {
+        return painter;
+    }
+
+    // the widget's state changed, so the next render redraws the layer
+    public void invalidate() {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // where the layer is composited on the target
+    public Damage.Rect bounds() {
+        return new Damage.Rect(x, y, raster.w(), raster.h());
+    }
+
+    // how many times the layer was drawn
+    public long redraws() {
+        return redraws;
+    }
+
+    @Override
+    public void render() {
+        redrawIfDirty();
+        target.drawImg(x, y, raster, blendMode);
+    }
+
+    // composites only the part of the layer inside clip
+    @Override
+    public void render(Damage.Rect clip) {
+        redrawIfDirty();
+        var visible = bounds().intersect(clip);
+        if (!visible.isEmpty()) {
+            target.drawImg(visible.x(), visible.y(), raster, visible.x() - x, visible.y() - y, visible.w(), visible.h(),
+                    blendMode);
+        }
+    }
+
+    @Override
+    public boolean supportsClip() {
+        return true;
+    }
+
+    private void redrawIfDirty() {
+        if (dirty) {
+            raster.writeArgb((_, _, _) -> NONE);
+            draw.run();
+            dirty = false;
+            ++redraws;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ui;
+
+import java.awt.Component;
+import java.awt.event.KeyEvent;
+
+// a recorded key event, along with the locking key state it was recorded with. there's no keyboard to ask on replay.
+// never serialized.
+@SuppressWarnings("serial")
+final class ReplayedKeyEvent extends KeyEvent {
+    private final boolean capsLock;
+
+    ReplayedKeyEvent(Component source, int id, long when, int modifiers, int keyCode, char keyChar, int keyLocation,
+                     boolean capsLock) {
+        super(source, id, when, modifiers, keyCode, keyChar, keyLocation);
+        this.capsLock = capsLock;
+    }
+
+    boolean capsLock() {
+        return capsLock;
+    }
+}
@@ -0,0 +1,77 @@
+package harness;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+// frame hashes per perf test, kept in DIR/<suite>.properties and committed; record or re-record them with
+// -Dharness.perf.update=true after accepting a change, as a test without them fails. p95 frame times are machine specific, so they're only kept (and
+// checked) in -Dharness.perf.timings=<dir>, a directory of the same files that stays local. the first run there
+// records them; -Dharness.perf.updateTimings=true re-records them.
+class PerfBaseline {
+    static final Path    DIR            = Path.of(System.getProperty("harness.perf.baselines", "tst/baselines"));
+    static final Path    TIMINGS        = Optional.ofNullable(System.getProperty("harness.perf.timings"))
+            .map(Path::of)
+            .orElse(null);
+    static final boolean UPDATE         = Boolean.getBoolean("harness.perf.update");
+    static final boolean UPDATE_TIMINGS = Boolean.getBoolean("harness.perf.updateTimings");
+
+    private PerfBaseline() {}
+
+    static synchronized Optional<int[]> loadHashes(Class<?> suite, String test) throws IOException {
+        var hashes = read(DIR, suite).getProperty(test + ".hashes");
+        if (hashes == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.stream(hashes.split(",")).mapToInt(Integer::parseUnsignedInt).toArray());
+    }
+
+    static synchronized void storeHashes(Class<?> suite, String test, int[] hashes) throws IOException {
+        var props = read(DIR, suite);
+        props.setProperty(test + ".hashes", Arrays.stream(hashes)
+                .mapToObj(Integer::toUnsignedString)
+                .collect(Collectors.joining(",")));
+        write(DIR, suite, props);
+    }
+
+    static synchronized OptionalLong loadP95Nanos(Class<?> suite, String test) throws IOException {
+        var p95 = read(TIMINGS, suite).getProperty(test + ".p95Nanos");
+        return p95 == null ? OptionalLong.empty() : OptionalLong.of(Long.parseLong(p95));
+    }
+
+    static synchronized void storeP95Nanos(Class<?> suite, String test, long p95Nanos) throws IOException {
+        var props = read(TIMINGS, suite);
+        props.setProperty(test + ".p95Nanos", Long.toString(p95Nanos));
+        write(TIMINGS, suite, props);
+    }
+
+    private static Properties read(Path dir, Class<?> suite) throws IOException {
+        var props = new Properties();
+        var file = file(dir, suite);
+        if (Files.exists(file)) {
+            try (var is = new FileInputStream(file.toFile())) {
+                props.load(is);
+            }
+        }
+        return props;
+    }
+
+    // sorted, and without the date comment Properties.store adds, so re-recording the same values changes nothing
+    private static void write(Path dir, Class<?> suite, Properties props) throws IOException {
+        Files.createDirectories(dir);
+        Files.write(file(dir, suite), props.stringPropertyNames().stream()
+                .sorted()
+                .map(key -> key + "=" + props.getProperty(key))
+                .toList());
+    }
+
+    private static Path file(Path dir, Class<?> suite) {
+        return dir.resolve(suite.getCanonicalName() + ".properties");
+    }
+}
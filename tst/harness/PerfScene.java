@@ -0,0 +1,8 @@
+package harness;
+
+// a deterministic scene for a PerfTest; every run of the same scene must render the same frames
+public interface PerfScene {
+    void renderFrame();
+
+    int frameHash();
+}
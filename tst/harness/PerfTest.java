@@ -0,0 +1,21 @@
+package harness;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// marks a method returning a PerfScene. the runner renders warmup frames, then times frames more, and fails if any
+// frame hashes differently than in the suite's baseline, or, when local timings are kept (see PerfBaseline), if p95
+// frame time is more than maxRegression slower than recorded
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PerfTest {
+    boolean enabled() default true;
+
+    int warmup() default 50;
+
+    int frames() default 60;
+
+    double maxRegression() default 0.25;
+}
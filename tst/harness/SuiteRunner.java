@@ -2,18 +2,27 @@ package harness;
 
 import logging.LogManager;
 import logging.Logger;
+import timing.Histogram;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class SuiteRunner {
     private static final SuiteRunner INSTANCE  = new SuiteRunner();
@@ -21,12 +30,17 @@ public class SuiteRunner {
     private static final Clock       CLOCK     = Clock.systemDefaultZone();
     public static final  String      CHECKMARK = "✅";
     public static final  String      X_MARK    = "❌";
+    private static final int         THREADS   = Integer.getInteger("harness.threads",
+            Runtime.getRuntime().availableProcessors());
+    // where to write a machine-readable report of every test's result and time, if anywhere
+    private static final String      REPORT    = System.getProperty("harness.report");
+    private static final int         SLOWEST   = 10;
 
-    private sealed interface TestResult permits Success, Failure {}
+    sealed interface TestResult permits Success, Failure {}
 
-    private record Success(Duration time) implements TestResult {}
+    record Success(Duration time) implements TestResult {}
 
-    private record Failure(Duration time, Throwable ex) implements TestResult {}
+    record Failure(Duration time, Throwable ex) implements TestResult {}
 
     private SuiteRunner() {}
 
@@ -34,10 +48,19 @@ public class SuiteRunner {
         SuiteRunner.INSTANCE.runAllInCallingClass();
     }
 
+    // runs the named suites together, e.g. java harness.SuiteRunner rendering.DamageTest timing.HistogramTest
+    public static void main(String[] args) throws ClassNotFoundException {
+        var suites = new ArrayList<Class<?>>();
+        for (var arg : args) {
+            suites.add(Class.forName(arg));
+        }
+        SuiteRunner.INSTANCE.runAll(suites);
+    }
+
     private void runAllInCallingClass() {
         var suite = inferCallingClass();
         LOG.debug("Inferred test suite: %s", suite);
-        runAllIn(suite);
+        runAll(List.of(suite));
     }
 
     private Class<?> inferCallingClass() {
@@ -59,12 +82,55 @@ public class SuiteRunner {
         throw new RuntimeException("Could not determine test suite from stack");
     }
 
-    private void runAllIn(Class<?> suite) {
-        var constructor = findConstructor(suite);
-        LOG.debug("Test suite %s has default constructor", suite);
-        var instance = instantiateSuite(suite, constructor);
-        LOG.debug("Instantiated test suite: %s", suite);
-        runAllIn(suite, instance);
+    // tests run concurrently on a pool of THREADS, each on a fresh suite instance. perf tests run afterward, one at
+    // a time, so nothing else competes with them for the cpu.
+    private void runAll(List<Class<?>> suites) {
+        var pool = Executors.newFixedThreadPool(THREADS);
+        var futures = new LinkedHashMap<Class<?>, Map<Method, Future<TestResult>>>();
+        var perfTests = new LinkedHashMap<Class<?>, Collection<Method>>();
+        try {
+            for (var suite : suites) {
+                var constructor = findConstructor(suite);
+                LOG.debug("Test suite %s has default constructor", suite);
+                var tests = findTests(suite);
+                LOG.debug("Found %d tests in suite: %s", tests.size(), suite);
+                var suiteFutures = new LinkedHashMap<Method, Future<TestResult>>();
+                for (var test : tests) {
+                    if (test.isAnnotationPresent(PerfTest.class)) {
+                        perfTests.computeIfAbsent(suite, _ -> new ArrayList<>()).add(test);
+                    } else {
+                        suiteFutures.put(test, pool.submit(() -> runTest(suite, constructor, test)));
+                    }
+                }
+                futures.put(suite, suiteFutures);
+            }
+            var results = new LinkedHashMap<Class<?>, Map<Method, TestResult>>();
+            futures.forEach((suite, suiteFutures) -> {
+                var suiteResults = new LinkedHashMap<Method, TestResult>();
+                suiteFutures.forEach((test, future) -> suiteResults.put(test, await(future)));
+                results.put(suite, suiteResults);
+            });
+            perfTests.forEach((suite, tests) -> tests.forEach(test
+                    -> results.get(suite).put(test, runTest(suite, findConstructor(suite), test))));
+            results.forEach(this::displayResults);
+            displaySlowest(results);
+            if (REPORT != null) {
+                writeReport(Path.of(REPORT), results);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TestResult await(Future<TestResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for test", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Test runner failed", e.getCause());
+        }
     }
 
     private Constructor<?> findConstructor(Class<?> suite) {
@@ -87,22 +153,25 @@ public class SuiteRunner {
         }
     }
 
-    private void runAllIn(Class<?> suite, Object instance) {
-        var tests = findTests(suite);
-        LOG.debug("Found %d tests in suite: %s", tests.size(), suite);
-        var results = runTests(suite, instance, tests);
-        displayResults(suite, results);
-    }
-
     private Collection<Method> findTests(Class<?> suite) {
         var tests = new ArrayList<Method>();
         for (Method method : suite.getDeclaredMethods()) {
-            if (null == method.getAnnotation(Test.class)) {
+            var test = method.getAnnotation(Test.class);
+            var perfTest = method.getAnnotation(PerfTest.class);
+            if (null == test && null == perfTest) {
                 continue;
             }
-            if (!method.getAnnotation(Test.class).enabled()) {
+            if (null != test && null != perfTest) {
+                throw new IllegalArgumentException("Test method must not be both a test and a perf test: "
+                        + formatTest(suite, method));
+            }
+            if (null != test ? !test.enabled() : !perfTest.enabled()) {
                 continue;
             }
+            if (null != perfTest && !PerfScene.class.isAssignableFrom(method.getReturnType())) {
+                throw new IllegalArgumentException("Perf test method must return a PerfScene: "
+                        + formatTest(suite, method));
+            }
             if (0 != method.getParameterCount()) {
                 throw new IllegalArgumentException("Test method must have no arguments: " + formatTest(suite, method));
             }
@@ -117,24 +186,12 @@ public class SuiteRunner {
         return tests;
     }
 
-    private Map<Method, TestResult> runTests(Class<?> suite, Object instance, Collection<Method> tests) {
-        var results = new HashMap<Method, TestResult>();
-        for (Method test : tests) {
-            var result = runTest(suite, instance, test);
-            results.put(test, result);
-        }
-        return results;
-    }
-
     private void displayResults(Class<?> suite, Map<Method, TestResult> results) {
         LOG.info("======Test Results======");
         LOG.info("%s %s [%s]",
                 results.values().stream().anyMatch(r -> r instanceof Failure) ? X_MARK : CHECKMARK,
                 formatSuite(suite),
-                results.values().stream().map(r -> switch (r) {
-                    case Success s -> s.time();
-                    case Failure f -> f.time();
-                }).reduce(Duration.ZERO, Duration::plus));
+                results.values().stream().map(SuiteRunner::time).reduce(Duration.ZERO, Duration::plus));
         results.forEach((test, result) -> {
             LOG.info("%s %s [%s]",
                     switch (result) {
@@ -142,10 +199,7 @@ public class SuiteRunner {
                         case Failure _ -> X_MARK;
                     },
                     formatTest(suite, test),
-                    switch (result) {
-                        case Success s -> s.time();
-                        case Failure f -> f.time();
-                    });
+                    time(result));
         });
         results.entrySet().stream()
                 .filter(r -> r.getValue() instanceof Failure)
@@ -158,12 +212,19 @@ public class SuiteRunner {
         LOG.info("========================");
     }
 
-    private TestResult runTest(Class<?> suite, Object instance, Method test) {
+    private TestResult runTest(Class<?> suite, Constructor<?> constructor, Method test) {
         var start = CLOCK.instant();
         try {
+            var instance = instantiateSuite(suite, constructor);
             test.setAccessible(true);
-            test.invoke(instance);
+            var res = test.invoke(instance);
+            var perfTest = test.getAnnotation(PerfTest.class);
+            if (perfTest != null) {
+                runPerfTest(suite, test, perfTest, (PerfScene) res);
+            }
             return new Success(Duration.between(start, CLOCK.instant()));
+        } catch (AssertionError | IOException | RuntimeException e) {
+            return new Failure(Duration.between(start, CLOCK.instant()), e);
         } catch (IllegalAccessException e) {
             throw new RuntimeException("Failed to invoke test method: " + formatTest(suite, test), e);
         } catch (InvocationTargetException e) {
@@ -171,6 +232,114 @@ public class SuiteRunner {
         }
     }
 
+    private void runPerfTest(Class<?> suite, Method test, PerfTest perfTest, PerfScene scene) throws IOException {
+        for (int i = 0; i < perfTest.warmup(); ++i) {
+            scene.renderFrame();
+        }
+        // start measuring from a clean heap, so garbage from setup and warmup isn't collected on the clock
+        System.gc();
+        var frameTimes = new Histogram();
+        var hashes = new int[perfTest.frames()];
+        for (int i = 0; i < hashes.length; ++i) {
+            long start = System.nanoTime();
+            scene.renderFrame();
+            frameTimes.record(System.nanoTime() - start);
+            hashes[i] = scene.frameHash();
+        }
+        long p95Nanos = frameTimes.percentile(95);
+        LOG.info("%s rendered %d frames: p50 %.3f ms, p95 %.3f ms, max %.3f ms", formatTest(suite, test),
+                hashes.length, frameTimes.percentile(50) / 1e6, p95Nanos / 1e6, frameTimes.max() / 1e6);
+        checkHashes(suite, test, hashes);
+        checkP95(suite, test, perfTest, p95Nanos);
+    }
+
+    private void checkHashes(Class<?> suite, Method test, int[] hashes) throws IOException {
+        if (PerfBaseline.UPDATE) {
+            PerfBaseline.storeHashes(suite, test.getName(), hashes);
+            LOG.info("Recorded frame hashes for %s in %s", formatTest(suite, test), PerfBaseline.DIR);
+            return;
+        }
+        // a missing baseline fails rather than being recorded, so a renamed test or a run from another directory
+        // can't pass without checking anything
+        var baseline = PerfBaseline.loadHashes(suite, test.getName());
+        if (baseline.isEmpty()) {
+            throw new AssertionError("No baseline in %s; re-run with -Dharness.perf.update=true"
+                    .formatted(PerfBaseline.DIR.toAbsolutePath()));
+        }
+        var expected = baseline.get();
+        if (expected.length != hashes.length) {
+            throw new AssertionError("Baseline has %d frames, not %d; re-record it"
+                    .formatted(expected.length, hashes.length));
+        }
+        for (int i = 0; i < hashes.length; ++i) {
+            if (expected[i] != hashes[i]) {
+                throw new AssertionError("Frame %d differs from the baseline".formatted(i));
+            }
+        }
+    }
+
+    // only against times recorded on this machine, if any are kept
+    private void checkP95(Class<?> suite, Method test, PerfTest perfTest, long p95Nanos) throws IOException {
+        if (PerfBaseline.TIMINGS == null) {
+            return;
+        }
+        var baseline = PerfBaseline.loadP95Nanos(suite, test.getName());
+        if (PerfBaseline.UPDATE_TIMINGS || baseline.isEmpty()) {
+            PerfBaseline.storeP95Nanos(suite, test.getName(), p95Nanos);
+            LOG.info("Recorded p95 frame time for %s in %s", formatTest(suite, test), PerfBaseline.TIMINGS);
+            return;
+        }
+        long expected = baseline.getAsLong();
+        if (p95Nanos > expected * (1 + perfTest.maxRegression())) {
+            throw new AssertionError("p95 frame time %.3f ms is more than %.0f%% over the baseline's %.3f ms".formatted(
+                    p95Nanos / 1e6, perfTest.maxRegression() * 100, expected / 1e6));
+        }
+    }
+
+    private static Duration time(TestResult result) {
+        return switch (result) {
+            case Success s -> s.time();
+            case Failure f -> f.time();
+        };
+    }
+
+    private void displaySlowest(Map<Class<?>, Map<Method, TestResult>> results) {
+        LOG.info("======Slowest Tests=====");
+        results.entrySet().stream()
+                .flatMap(suite -> suite.getValue().entrySet().stream().map(test -> Map.entry(
+                        formatTest(suite.getKey(), test.getKey()), time(test.getValue()))))
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .limit(SLOWEST)
+                .forEach(test -> LOG.info("%s [%s]", test.getKey(), test.getValue()));
+        LOG.info("========================");
+    }
+
+    // csv if path ends in .csv, json otherwise. numbers are formatted the same in every locale, so the report parses
+    // back wherever it was written.
+    static void writeReport(Path path, Map<Class<?>, Map<Method, TestResult>> results) {
+        var csv = path.toString().endsWith(".csv");
+        var rows = new ArrayList<String>();
+        results.forEach((suite, suiteResults) -> suiteResults.forEach((test, result) -> {
+            var status = result instanceof Success ? "success" : "failure";
+            double millis = time(result).toNanos() / 1e6;
+            rows.add(csv
+                    ? String.format(Locale.ROOT, "%s,%s,%s,%.3f",
+                            suite.getCanonicalName(), test.getName(), status, millis)
+                    : String.format(Locale.ROOT,
+                            "  {\"suite\": \"%s\", \"test\": \"%s\", \"result\": \"%s\", \"millis\": %.3f}",
+                            suite.getCanonicalName(), test.getName(), status, millis));
+        }));
+        var report = csv
+                ? "suite,test,result,millis\n" + String.join("\n", rows) + "\n"
+                : "[\n" + String.join(",\n", rows) + "\n]\n";
+        try {
+            Files.writeString(path, report);
+            LOG.info("Wrote test report to %s", path);
+        } catch (IOException e) {
+            LOG.error(e, "Failed to write test report to %s", path);
+        }
+    }
+
     private Optional<Class<?>> getClassFromFrame(StackTraceElement frame) {
         try {
             return Optional.of(Class.forName(frame.getClassName()));
@@ -0,0 +1,58 @@
+package harness;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class SuiteRunnerTest {
+    private static final Pattern JSON_ROW = Pattern.compile(
+            "  \\{\"suite\": \"([^\"]*)\", \"test\": \"([^\"]*)\", \"result\": \"([^\"]*)\", \"millis\": ([^,}]*)}");
+
+    // the default locale is global, so both report shapes are checked in one test rather than two running at once
+    @Test
+    void testReportParsesUnderCommaDecimalLocale() throws IOException, NoSuchMethodException {
+        var test = SuiteRunnerTest.class.getDeclaredMethod("testReportParsesUnderCommaDecimalLocale");
+        var results = Map.<Class<?>, Map<Method, SuiteRunner.TestResult>>of(SuiteRunnerTest.class,
+                new LinkedHashMap<>(Map.of(test, new SuiteRunner.Success(Duration.ofNanos(1_234_567)))));
+        var dir = Files.createTempDirectory("report");
+        var csv = dir.resolve("report.csv");
+        var json = dir.resolve("report.json");
+        var locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            SuiteRunner.writeReport(csv, results);
+            SuiteRunner.writeReport(json, results);
+        } finally {
+            Locale.setDefault(locale);
+        }
+
+        var lines = Files.readAllLines(csv);
+        assertEquals(List.of("suite", "test", "result", "millis"), List.of(lines.get(0).split(",")));
+        var columns = lines.get(1).split(",");
+        assertEquals(4, columns.length);
+        assertEquals("harness.SuiteRunnerTest", columns[0]);
+        assertEquals("success", columns[2]);
+        assertEquals(1.235, Double.parseDouble(columns[3]));
+
+        var rows = Files.readAllLines(json);
+        assertEquals(List.of("[", "]"), List.of(rows.getFirst(), rows.getLast()));
+        var row = JSON_ROW.matcher(rows.get(1));
+        assertTrue(row.matches());
+        assertEquals(test.getName(), row.group(2));
+        assertEquals(1.235, Double.parseDouble(row.group(4)));
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
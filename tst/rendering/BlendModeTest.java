@@ -0,0 +1,111 @@
+package rendering;
+
+import harness.Test;
+
+import java.util.Random;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class BlendModeTest {
+    private static final BlendMode[] MODES = {BlendMode.OVER_STRAIGHT, BlendMode.OVER_PRE, BlendMode.SUBTRACT};
+
+    @Test
+    void testPackedSpansMatchPerPixel() {
+        var random = new Random(1);
+        for (var mode : MODES) {
+            // odd lengths and offsets so both the vector body and the scalar tail get exercised
+            for (int length : new int[] {0, 1, 7, 8, 9, 63, 1000}) {
+                var fg = pixels(random, length + 3);
+                var bg = pixels(random, length + 5);
+                var expected = bg.clone();
+                for (int i = 0; i < length; ++i) {
+                    expected[5 + i] = mode.applyArgb(fg[3 + i], bg[5 + i]);
+                }
+                mode.applyArgb(fg, 3, bg, 5, length);
+                for (int i = 0; i < bg.length; ++i) {
+                    assertEquals(expected[i], bg[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPlanarSpansMatchPerPixel() {
+        var random = new Random(2);
+        for (var mode : MODES) {
+            for (int length : new int[] {0, 1, 7, 8, 9, 63, 1000}) {
+                var fgArgb = pixels(random, length + 3);
+                var bgArgb = pixels(random, length + 5);
+                var fg = PixelRaster.ofArgb(fgArgb.length, 1, (i, _, _) -> fgArgb[i]);
+                var bg = PixelRaster.ofArgb(bgArgb.length, 1, (i, _, _) -> bgArgb[i]);
+                mode.applyPlanar(fg, 3, bg, 5, length);
+                for (int i = 0; i < bgArgb.length; ++i) {
+                    int expected = i >= 5 && i < 5 + length ? mode.applyArgb(fgArgb[i - 2], bgArgb[i]) : bgArgb[i];
+                    assertEquals(expected, bg.argbInt32(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRasterBlendMatchesPerPixel() {
+        var random = new Random(3);
+        var fgArgb = pixels(random, 37 * 11);
+        var bgArgb = pixels(random, 37 * 11);
+        for (var factory : new RasterFactory[] {RasterFactory.PLANAR, RasterFactory.PACKED}) {
+            var fg = factory.createArgb(37, 11, (i, _, _) -> fgArgb[i]);
+            var bg = factory.createArgb(37, 11, (i, _, _) -> bgArgb[i]);
+            for (var mode : MODES) {
+                var blended = mode.apply(fg, bg);
+                for (int i = 0; i < fgArgb.length; ++i) {
+                    assertEquals(mode.applyArgb(fgArgb[i], bgArgb[i]), blended.argbInt32(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFixedPointCloseToDouble() {
+        var random = new Random(4);
+        var fg = pixels(random, 100_000);
+        var bg = pixels(random, 100_000);
+        BlendMode[] fixed = {BlendMode.FixedPoint.OVER_STRAIGHT, BlendMode.FixedPoint.OVER_PRE, BlendMode.FixedPoint.SUBTRACT};
+        for (int m = 0; m < MODES.length; ++m) {
+            int maxDiff = 0;
+            for (int i = 0; i < fg.length; ++i) {
+                int expected = MODES[m].applyArgb(fg[i], bg[i]);
+                int actual = fixed[m].applyArgb(fg[i], bg[i]);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    maxDiff = Math.max(maxDiff, Math.abs((expected >>> shift & 0xff) - (actual >>> shift & 0xff)));
+                }
+            }
+            assertTrue(maxDiff <= 1);
+        }
+    }
+
+    @Test
+    void testFixedPointDivide() {
+        for (int x = 0; x <= 255 * 255; ++x) {
+            assertEquals(x / 255, FixedPointBlend.div255(x));
+        }
+    }
+
+    // random pixels, salted with the fully transparent and fully opaque edge cases
+    private static int[] pixels(Random random, int length) {
+        var res = new int[length];
+        for (int i = 0; i < length; ++i) {
+            res[i] = switch (i % 5) {
+                case 0 -> random.nextInt() & 0x00ffffff;
+                case 1 -> random.nextInt() | 0xff000000;
+                default -> random.nextInt();
+            };
+        }
+        return res;
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,87 @@
+package rendering;
+
+import harness.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class CompositeRendererTest {
+    @Test
+    void testRendersStaticRunOnce() {
+        var raster = RasterFactory.PACKED.create(100, 100);
+        var eraser = new Counting(new Eraser(raster));
+        var checkerboard = new Counting(new Checkerboard(0.8f, 0.9f, raster));
+        var foreground = new Counting(new ImageRenderer(
+                PackedRaster.ofArgb(10, 10, (_, _, _) -> 0xffff0000), raster, BlendMode.OVER_PRE));
+        var renderer = new CompositeRenderer(List.of(eraser, checkerboard, foreground));
+        var reference = RasterFactory.PACKED.create(100, 100);
+        new CompositeRenderer(List.of(new Eraser(reference), new Checkerboard(0.8f, 0.9f, reference))).render();
+        new ImageRenderer(PackedRaster.ofArgb(10, 10, (_, _, _) -> 0xffff0000), reference, BlendMode.OVER_PRE)
+                .render();
+        for (int frame = 0; frame < 3; ++frame) {
+            raster.writeArgb((_, _, _) -> 0xff00ff00);
+            renderer.render();
+            assertEquals(reference, raster);
+        }
+        assertEquals(1, eraser.renders);
+        assertEquals(1, checkerboard.renders);
+        assertEquals(3, foreground.renders);
+        renderer.invalidateBackground();
+        renderer.render();
+        assertEquals(2, eraser.renders);
+        assertEquals(reference, raster);
+    }
+
+    @Test
+    void testClippedFramesRenderStaticRun() {
+        var raster = RasterFactory.PACKED.create(100, 100);
+        var eraser = new Counting(new Eraser(raster));
+        var renderer = new CompositeRenderer(List.of(eraser));
+        renderer.render(new Damage.Rect(10, 10, 20, 20));
+        renderer.render(new Damage.Rect(10, 10, 20, 20));
+        assertEquals(2, eraser.renders);
+        // a full frame is kept, and clipped frames restore from it
+        renderer.render(new Damage.Rect(0, 0, 100, 100));
+        renderer.render(new Damage.Rect(10, 10, 20, 20));
+        assertEquals(3, eraser.renders);
+    }
+
+    private static class Counting implements Renderer {
+        private final Renderer delegate;
+
+        private int renders = 0;
+
+        private Counting(Renderer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void render() {
+            ++renders;
+            delegate.render();
+        }
+
+        @Override
+        public void render(Damage.Rect clip) {
+            ++renders;
+            delegate.render(clip);
+        }
+
+        @Override
+        public boolean supportsClip() {
+            return delegate.supportsClip();
+        }
+
+        @Override
+        public Optional<Raster> staticTarget() {
+            return delegate.staticTarget();
+        }
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
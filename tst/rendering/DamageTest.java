@@ -0,0 +1,64 @@
+package rendering;
+
+import harness.Test;
+
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class DamageTest {
+    @Test
+    void testAddClipsAndMerges() {
+        var damage = new Damage(100, 100);
+        damage.add(-10, -10, 20, 20);
+        damage.add(2, 2, 5, 5);  // already covered
+        damage.add(50, 50, 100, 100);
+        assertEquals(List.of(new Damage.Rect(0, 0, 10, 10), new Damage.Rect(50, 50, 50, 50)), damage.drain());
+        assertTrue(damage.isEmpty());
+    }
+
+    @Test
+    void testCollapsesToBounds() {
+        var damage = new Damage(100, 100);
+        for (int i = 0; i < 17; ++i) {
+            damage.add(i * 3, i * 2, 1, 1);
+        }
+        assertEquals(List.of(new Damage.Rect(0, 0, 49, 33)), damage.drain());
+    }
+
+    @Test
+    void testRasterWritesAreTracked() {
+        var display = AwtViewer.createDisplay(100, 100, Color.NamedColor.BLACK);
+        display.damage().orElseThrow().drain();
+        new RasterPainter(display).drawImg(90, 10, 20, 5, Color.NamedColor.RED, BlendMode.OVER_PRE);
+        display.pixel(1, 2, Color.NamedColor.RED);
+        assertEquals(List.of(new Damage.Rect(90, 10, 10, 5), new Damage.Rect(1, 2, 1, 1)),
+                display.damage().orElseThrow().drain());
+    }
+
+    @Test
+    void testCompositeRendersOnlyInvalidated() {
+        var invalidation = new Damage(200, 200);
+        var partial = new PackedRaster(200, 200, Color.NamedColor.BLACK);
+        var renderer = new CompositeRenderer(List.of(new Eraser(partial), new Checkerboard(0.8f, 0.9f, partial)),
+                invalidation);
+        var full = new PackedRaster(200, 200, Color.NamedColor.BLACK);
+        var reference = new CompositeRenderer(List.of(new Eraser(full), new Checkerboard(0.8f, 0.9f, full)));
+        renderer.render();
+        assertEquals(new PackedRaster(200, 200, Color.NamedColor.BLACK), partial);
+        invalidation.add(30, 40, 70, 20);
+        renderer.render();
+        reference.render();
+        var expected = full.clone();
+        expected.writeArgb((i, x, y) -> x >= 30 && x < 100 && y >= 40 && y < 60
+                ? full.argbInt32(i)
+                : Color.NamedColor.BLACK.argbInt32());
+        assertEquals(expected, partial);
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,60 @@
+package rendering;
+
+import harness.Test;
+
+import java.util.Map;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class GlyphCacheTest {
+    // a black glyph on a transparent background
+    private static final Raster A    = RasterFactory.PACKED.createArgb(4, 4, (_, x, y) -> x == y ? 0xff000000 : 0);
+    private static final Font   FONT = new InMemoryFont(Map.of('\0', A, 'a', A, 'b', A, 'c', A), 4);
+
+    @Test
+    void testTintsAndScales() {
+        var cache = new GlyphCache(8);
+        var glyph = cache.get(FONT, 'a', Color.NamedColor.RED, 8, RasterFactory.PACKED);
+        assertEquals(8, glyph.w());
+        assertEquals(8, glyph.h());
+        for (int y = 0; y < 8; ++y) {
+            for (int x = 0; x < 8; ++x) {
+                int expected = x / 2 == y / 2 ? 0xff000000 | Color.NamedColor.RED.rgbInt24() : 0;
+                assertEquals(expected, glyph.argbInt32(y * 8 + x));
+            }
+        }
+    }
+
+    @Test
+    void testHitsAndEvictsLeastRecentlyUsed() {
+        var cache = new GlyphCache(2);
+        var a = cache.get(FONT, 'a', Color.NamedColor.WHITE, 4, RasterFactory.PACKED);
+        cache.get(FONT, 'b', Color.NamedColor.WHITE, 4, RasterFactory.PACKED);
+        assertTrue(a == cache.get(FONT, 'a', Color.NamedColor.WHITE, 4, RasterFactory.PACKED));
+        // evicts b, which was used less recently than a
+        cache.get(FONT, 'c', Color.NamedColor.WHITE, 4, RasterFactory.PACKED);
+        assertTrue(a == cache.get(FONT, 'a', Color.NamedColor.WHITE, 4, RasterFactory.PACKED));
+        cache.get(FONT, 'b', Color.NamedColor.WHITE, 4, RasterFactory.PACKED);
+        assertEquals(2, cache.size());
+        assertEquals(2L, cache.hits());
+        assertEquals(4L, cache.misses());
+        assertEquals(2L, cache.evictions());
+    }
+
+    @Test
+    void testKeyedByColorAndSize() {
+        var cache = new GlyphCache(8);
+        cache.get(FONT, 'a', Color.NamedColor.WHITE, 4, RasterFactory.PACKED);
+        cache.get(FONT, 'a', Color.NamedColor.RED, 4, RasterFactory.PACKED);
+        cache.get(FONT, 'a', Color.NamedColor.RED, 8, RasterFactory.PACKED);
+        cache.get(FONT, 'a', Color.NamedColor.RED, 8, RasterFactory.PLANAR);
+        assertEquals(4, cache.size());
+        assertEquals(0L, cache.hits());
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,59 @@
+package rendering;
+
+import harness.Test;
+import misc.monads.Result;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class HeadlessViewerTest {
+    @Test
+    void testKeepsLastFramesAndDumpsEveryNth() {
+        var saved = new ArrayList<String>();
+        var repository = new RasterRepository() {
+            @Override
+            public Result<Raster, Exception> load(File file) {
+                return Result.failure(new UnsupportedOperationException());
+            }
+
+            @Override
+            public Result<?, Exception> save(File file, Raster raster) {
+                saved.add(file.getName() + "=" + Integer.toHexString(raster.argbInt32(0)));
+                return Result.success(file);
+            }
+        };
+        var display = RasterFactory.PACKED.create(4, 4);
+        var viewer = HeadlessViewer.builder()
+                .raster(display)
+                .ringSize(2)
+                .dump(repository, new File("frames"), 2)
+                .build();
+        var renderer = new CompositeRenderer(List.of(
+                new Eraser(display),
+                new Renderer() {
+                    private int frame = 0;
+
+                    @Override
+                    public void render() {
+                        display.setArgb(0, 0, 1, 1, new int[] {0xff000000 | frame++}, 0, 1);
+                    }
+                },
+                viewer));
+        for (int i = 0; i < 5; ++i) {
+            renderer.render();
+        }
+        assertEquals(5L, viewer.frames());
+        assertEquals(0xff000004, viewer.frame(0).argbInt32(0));
+        assertEquals(0xff000003, viewer.frame(1).argbInt32(0));
+        assertEquals(List.of("frame_00000000.tx=ff000000", "frame_00000002.tx=ff000002", "frame_00000004.tx=ff000004"),
+                saved);
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,80 @@
+package rendering;
+
+import harness.Test;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+// the int renderers against the Color reads, writes and blend they replaced
+public class IntPathTest {
+    private static final int W = 120;
+    private static final int H = 80;
+
+    private static final BlendMode COLOR_OVER_PRE = (fg, bg) -> {
+        var fgA = bToD(fg.a());
+        var oneMinusFgA = 1 - fgA;
+        return Color.ArgbInt32Color.of(
+                dToB(fgA + bToD(bg.a()) * oneMinusFgA),
+                dToB(bToD(fg.r()) + bToD(bg.r()) * oneMinusFgA),
+                dToB(bToD(fg.g()) + bToD(bg.g()) * oneMinusFgA),
+                dToB(bToD(fg.b()) + bToD(bg.b()) * oneMinusFgA));
+    };
+
+    @Test
+    void testEraser() {
+        for (var factory : new RasterFactory[] {RasterFactory.PLANAR, RasterFactory.PACKED}) {
+            var actual = background(factory);
+            new Eraser(actual).render();
+            var expected = background(factory);
+            expected.write((_, _, _) -> Color.NamedColor.NONE);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void testCheckerboard() {
+        for (var factory : new RasterFactory[] {RasterFactory.PLANAR, RasterFactory.PACKED}) {
+            var actual = background(factory);
+            new Checkerboard(0.8f, 0.9f, actual).render();
+            var pattern = factory.create(W, H, (_, x, y) -> (x / 50) % 2 == (y / 50) % 2
+                    ? Color.NamedColor.WHITE.withAlpha(0.8f)
+                    : Color.NamedColor.WHITE.withAlpha(0.9f));
+            assertEquals(blend(pattern, background(factory)), actual);
+        }
+    }
+
+    @Test
+    void testImageRenderer() {
+        for (var factory : new RasterFactory[] {RasterFactory.PLANAR, RasterFactory.PACKED}) {
+            var image = factory.create(W, H, (i, _, _) -> Color.ArgbInt32Color.of(i * 0x01030507));
+            var actual = background(factory);
+            new ImageRenderer(image, actual, BlendMode.OVER_PRE).render();
+            assertEquals(blend(image, background(factory)), actual);
+        }
+    }
+
+    private static Raster background(RasterFactory factory) {
+        return factory.create(W, H, (i, _, _) -> Color.ArgbInt32Color.of(0xff000000 | i * 0x00050301));
+    }
+
+    private static Raster blend(Raster fg, Raster bg) {
+        for (int y = 0; y < H; ++y) {
+            for (int x = 0; x < W; ++x) {
+                bg.pixel(x, y, COLOR_OVER_PRE.apply(fg.pixel(x, y), bg.pixel(x, y)));
+            }
+        }
+        return bg;
+    }
+
+    private static double bToD(byte b) {
+        return ((int) b & 0xff) * BlendMode.ONE_OVER_255;
+    }
+
+    private static byte dToB(double d) {
+        return (byte) (255. * Math.max(0, Math.min(1, d)));
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
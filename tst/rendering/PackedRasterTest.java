@@ -0,0 +1,77 @@
+package rendering;
+
+import harness.Test;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertInstanceOf;
+import static harness.SuiteRunner.runThis;
+
+public class PackedRasterTest {
+    @Test
+    void testConvertRoundTrip() {
+        var pixel = new PixelRaster(40, 50, (i, _, _) -> Color.ArgbInt32Color.of(i * 0x01020304));
+        var packed = new PackedRaster(pixel);
+        assertEquals(pixel.argb(), packed.argb());
+        assertEquals(pixel.rgb(), packed.rgb());
+        assertEquals(pixel, new PixelRaster(packed));
+    }
+
+    @Test
+    void testIndexedAccessMatchesPixel() {
+        var packed = new PackedRaster(40, 50, (i, _, _) -> Color.ArgbInt32Color.of(i * 0x01020304));
+        packed.argbInt32(3 * 40 + 7, 0x80ff0000);
+        assertEquals(0x80ff0000, packed.pixel(7, 3).argbInt32());
+        assertEquals(packed.pixel(39, 49).argbInt32(), packed.argbInt32(40 * 50 - 1));
+    }
+
+    @Test
+    void testSerializeDeserializePacked() {
+        Raster raster = new PackedRaster(40, 50, Color.NamedColor.WHITE);
+        var cut = ArgbSerializer.of(RasterFactory.PACKED);
+        byte[] bytes = cut.serialize(raster).fold(b -> b, e -> {throw e;});
+        Raster deserializedRaster = cut.deserialize(bytes).fold(r -> r, e -> {throw e;});
+        assertInstanceOf(PackedRaster.class, deserializedRaster);
+        assertEquals(raster, deserializedRaster);
+    }
+
+    @Test
+    void testCopyRegionAcrossLayouts() {
+        var src = new PixelRaster(40, 50, (i, _, _) -> Color.ArgbInt32Color.of(i * 0x01020304));
+        for (var factory : new RasterFactory[] {RasterFactory.PLANAR, RasterFactory.PACKED}) {
+            var dst = factory.create(20, 20, Color.NamedColor.BLACK);
+            dst.copyRegion(src, 30, 45, -2, 3, 20, 20);
+            assertEquals(src.pixel(32, 45).argbInt32(), dst.pixel(0, 3).argbInt32());
+            assertEquals(src.pixel(39, 49).argbInt32(), dst.pixel(7, 7).argbInt32());
+            assertEquals(Color.NamedColor.BLACK.argbInt32(), dst.pixel(8, 3).argbInt32());
+            assertEquals(Color.NamedColor.BLACK.argbInt32(), dst.pixel(0, 8).argbInt32());
+        }
+    }
+
+    @Test
+    void testCopyRegionOverlapping() {
+        for (var factory : new RasterFactory[] {RasterFactory.PLANAR, RasterFactory.PACKED}) {
+            var raster = factory.createArgb(10, 10, (i, _, _) -> i);
+            raster.copyRegion(raster, 0, 0, 1, 1, 9, 9);
+            for (int y = 1; y < 10; ++y) {
+                for (int x = 1; x < 10; ++x) {
+                    assertEquals((y - 1) * 10 + x - 1, raster.pixel(x, y).argbInt32());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testChannelSpans() {
+        var packed = PackedRaster.ofArgb(4, 4, (_, _, _) -> 0x11223344);
+        var row = new byte[] {1, 2, 3, 4};
+        packed.setChannel(Raster.Channel.GREEN, 0, 2, 4, 1, row, 0, 4);
+        assertEquals(0x11220344, packed.pixel(2, 2).argbInt32());
+        var dst = new byte[4];
+        packed.getChannel(Raster.Channel.RED, 0, 1, 4, 1, dst, 0, 4);
+        assertEquals((byte) 0x22, dst[3]);
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,45 @@
+package rendering;
+
+import harness.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class RenderEventTest {
+    @Test
+    void testRecordsEnabledEventsOnly() throws Exception {
+        var raster = RasterFactory.PACKED.create(16, 16);
+        var renderer = new CompositeRenderer(List.of(new Eraser(raster), new Checkerboard(0.8f, 0.9f, raster)));
+        var serializer = ChainRasterSerializer.of(ArgbSerializer.of(RasterFactory.PACKED));
+        var file = Files.createTempFile("events", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("engine.Render");
+            recording.start();
+            renderer.render();
+            serializer.serialize(raster);
+            recording.stop();
+            recording.dump(file);
+        }
+        var events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        // other suites may be rendering on other threads
+        var renders = events.stream()
+                .filter(e -> e.getEventType().getName().equals("engine.Render"))
+                .filter(e -> e.getThread().getJavaThreadId() == Thread.currentThread().threadId())
+                .toList();
+        assertEquals(2, renders.size());
+        assertEquals("Eraser", renders.get(0).getString("renderer"));
+        assertEquals("Checkerboard", renders.get(1).getString("renderer"));
+        // serializer events are disabled by default
+        assertEquals(0L, events.stream().filter(e -> e.getEventType().getName().equals("engine.Serializer")).count());
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
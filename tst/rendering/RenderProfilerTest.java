@@ -0,0 +1,51 @@
+package rendering;
+
+import harness.Test;
+
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class RenderProfilerTest {
+    private static long[] sink;
+
+    @Test
+    void testPublishesTimingsPerWindow() {
+        var raster = RasterFactory.PACKED.create(64, 64);
+        var renderer = new CompositeRenderer(List.of(new Eraser(raster), new Checkerboard(0.8f, 0.9f, raster)));
+        for (int i = 0; i < 119; ++i) {
+            renderer.render();
+        }
+        assertTrue(renderer.profiler().timings().isEmpty());
+        renderer.render();
+        var timings = renderer.profiler().timings();
+        assertEquals(3, timings.size());
+        assertEquals("Eraser", timings.get(0).renderer());
+        assertEquals("Checkerboard", timings.get(1).renderer());
+        assertEquals("frame", timings.get(2).renderer());
+        for (var timing : timings) {
+            assertEquals(120L, timing.nanos().count());
+            assertEquals(-1L, timing.allocatedBytes());
+        }
+        assertTrue(timings.get(2).nanos().max() >= timings.get(1).nanos().max());
+    }
+
+    @Test
+    void testTracksAllocations() {
+        var profiler = new RenderProfiler(true);
+        Renderer allocating = () -> sink = new long[1024];
+        var renderer = new CompositeRenderer(List.of(allocating), null, profiler);
+        for (int i = 0; i < 120; ++i) {
+            renderer.render();
+        }
+        var timings = profiler.timings();
+        assertTrue(timings.get(0).allocatedBytes() >= 8 * 1024);
+        assertTrue(timings.get(1).allocatedBytes() >= timings.get(0).allocatedBytes());
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,44 @@
+package rendering;
+
+import harness.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class TileExecutorTest {
+    private static final TileExecutor PARALLEL = TileExecutor.builder()
+            .pool(new ForkJoinPool(4))
+            .minTileSize(100)
+            .build();
+
+    @Test
+    void testBandsCoverEveryRowOnce() {
+        var hits = new AtomicIntegerArray(1000);
+        PARALLEL.forEachBand(10, hits.length(), (fromY, toY) -> {
+            for (int y = fromY; y < toY; ++y) {
+                hits.incrementAndGet(y);
+            }
+        });
+        for (int y = 0; y < hits.length(); ++y) {
+            assertEquals(1, hits.get(y));
+        }
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        for (var factory : new RasterFactory[] {RasterFactory.PLANAR, RasterFactory.PACKED}) {
+            var fg = factory.createArgb(123, 77, (i, _, _) -> i * 0x01020304);
+            var bg = factory.createArgb(123, 77, (i, _, _) -> ~i * 0x04030201);
+            assertEquals(BlendMode.OVER_PRE.apply(fg, bg), BlendMode.OVER_PRE.apply(fg, bg, PARALLEL));
+            var opacity = PixelFilter.opacity(0.5);
+            assertEquals(opacity.asRasterFilter().apply(fg), opacity.asRasterFilter(PARALLEL).apply(fg));
+        }
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
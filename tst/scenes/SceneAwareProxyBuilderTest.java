@@ -0,0 +1,51 @@
+package scenes;
+
+import harness.Test;
+import rendering.Damage;
+import rendering.Renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class SceneAwareProxyBuilderTest {
+    private static class ClippingScene implements Scene, Renderer {
+        private final List<Damage.Rect> clips = new ArrayList<>();
+
+        @Override
+        public void render() {
+            clips.add(null);
+        }
+
+        @Override
+        public void render(Damage.Rect clip) {
+            clips.add(clip);
+        }
+
+        @Override
+        public boolean supportsClip() {
+            return true;
+        }
+    }
+
+    @Test
+    void testForwardsOverriddenDefaultMethods() {
+        var scene = new ClippingScene();
+        var renderer = (Renderer) SceneAwareProxyBuilder.create()
+                .withInterface(Renderer.class)
+                .withTargetForScene(ClippingScene.class, scene)
+                .withSceneSupplier(() -> scene)
+                .build();
+        assertTrue(renderer.supportsClip());
+        var clip = new Damage.Rect(1, 2, 3, 4);
+        renderer.render(clip);
+        assertEquals(List.of(clip), scene.clips);
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,36 @@
+package scenes.textureeditor;
+
+import harness.Test;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class HsvTest {
+    @Test
+    void testPrimaries() {
+        assertEquals(new Hsv(0, 255, 255), Hsv.ofRgb(0xff0000));
+        assertEquals(new Hsv(255, 255, 255), Hsv.ofRgb(0xffff00));
+        assertEquals(new Hsv(2 * 255, 255, 255), Hsv.ofRgb(0x00ff00));
+        assertEquals(new Hsv(4 * 255, 255, 255), Hsv.ofRgb(0x0000ff));
+        assertEquals(new Hsv(5 * 255, 255, 255), Hsv.ofRgb(0xff00ff));
+        assertEquals(new Hsv(0, 0, 0x80), Hsv.ofRgb(0x808080));
+        assertEquals(0xff0000, Hsv.hueRgb(0));
+        assertEquals(0xff0000, Hsv.hueRgb(Hsv.HUE_RANGE));
+    }
+
+    @Test
+    void testRoundTrip() {
+        // integer division loses a little at each step, but never more than a couple of levels
+        for (int rgb = 0; rgb <= 0xffffff; rgb += 0x010305) {
+            int actual = Hsv.ofRgb(rgb).rgb();
+            for (int shift = 0; shift < 24; shift += 8) {
+                assertTrue(Math.abs((rgb >>> shift & 0xff) - (actual >>> shift & 0xff)) <= 2);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,91 @@
+package scenes.textureeditor;
+
+import harness.PerfScene;
+import harness.PerfTest;
+import rendering.Checkerboard;
+import rendering.CompositeRenderer;
+import rendering.Eraser;
+import rendering.Raster;
+import rendering.RasterFactory;
+
+import java.awt.Component;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static harness.SuiteRunner.runThis;
+
+public class TextureEditorPerfTest {
+    private static final int       SIZE   = 800;
+    private static final Component SOURCE = new Component() {};
+
+    @PerfTest
+    PerfScene editorWithTexture() {
+        var scene = new Scene();
+        var texture = new File("assets/fonts/test/standard/at.tx").getAbsoluteFile();
+        var loaded = scene.editor.loadFromFile(texture);
+        if (loaded.isFailure()) {
+            throw new IllegalStateException("Failed to load " + texture, loaded.getFailure());
+        }
+        return scene;
+    }
+
+    @PerfTest
+    PerfScene consoleWithHistory() {
+        var scene = new Scene();
+        scene.press(KeyEvent.VK_SLASH, '/');
+        for (int i = 0; i < 200; ++i) {
+            // unknown commands, so the output doesn't depend on the machine
+            scene.type("draw " + i);
+            scene.press(KeyEvent.VK_ENTER, '\n');
+        }
+        return scene;
+    }
+
+    @PerfTest
+    PerfScene colorPicker() {
+        var scene = new Scene();
+        scene.press(KeyEvent.VK_C, 'c');
+        return scene;
+    }
+
+    // the editor over the usual background, redrawn in full every frame
+    private static class Scene implements PerfScene {
+        private final Raster            display  = RasterFactory.PACKED.create(SIZE, SIZE);
+        private final TextureEditor     editor   = new TextureEditor(display,
+                Clock.fixed(Instant.EPOCH, ZoneOffset.UTC), 16, 16, RasterFactory.PACKED);
+        private final CompositeRenderer renderer = new CompositeRenderer(List.of(
+                new Eraser(display),
+                new Checkerboard(0.8f, 0.9f, display),
+                editor));
+
+        private void press(int keyCode, char c) {
+            editor.keyPressed(new KeyEvent(SOURCE, KeyEvent.KEY_PRESSED, 0, 0, keyCode, c,
+                    KeyEvent.KEY_LOCATION_STANDARD));
+        }
+
+        private void type(String str) {
+            for (char c : str.toCharArray()) {
+                press(KeyEvent.getExtendedKeyCodeForChar(c), c);
+            }
+        }
+
+        @Override
+        public void renderFrame() {
+            renderer.render();
+        }
+
+        @Override
+        public int frameHash() {
+            return Arrays.hashCode(display.argb());
+        }
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
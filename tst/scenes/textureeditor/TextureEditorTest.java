@@ -0,0 +1,162 @@
+package scenes.textureeditor;
+
+import harness.Test;
+import rendering.Checkerboard;
+import rendering.CompositeRenderer;
+import rendering.Damage;
+import rendering.Eraser;
+import rendering.Raster;
+import rendering.RasterFactory;
+
+import java.awt.Component;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertNotEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+import static scenes.textureeditor.model.Selection.BoxSelection;
+
+public class TextureEditorTest {
+    private static final int       SIZE   = 800;
+    private static final Component SOURCE = new Component() {};
+
+    @Test
+    void testBrushDamagesOnlyTheTexel() {
+        var editor = new Editor(true);
+        editor.renderer.render();
+        // each texel is 50 display pixels square
+        editor.click(75, 75);
+        var damaged = Damage.Rect.bounds(editor.editor.invalidation().drain()).orElseThrow();
+        assertTrue(damaged.contains(new Damage.Rect(50, 50, 50, 50)));
+        assertTrue(damaged.w() <= 52 && damaged.h() <= 52);
+    }
+
+    @Test
+    void testOpeningColorPickerDamagesOnlyThePicker() {
+        var editor = new Editor(true);
+        editor.renderer.render();
+        editor.press(KeyEvent.VK_C, 'c');
+        assertEquals(List.of(editor.editor.colorPicker().bounds()), editor.editor.invalidation().drain());
+    }
+
+    @Test
+    void testIgnoresPressesOffTheTexture() {
+        var editor = new Editor(true);
+        // zoomed out around the center, the texture covers [80, 720) on both axes
+        editor.press(KeyEvent.VK_MINUS, '-', InputEvent.CTRL_DOWN_MASK);
+        editor.click(5, 5);
+        assertEquals(0, editor.editor.state().texture().argbInt32(0));
+        editor.press(KeyEvent.VK_W, 'w');
+        editor.mouse(MouseEvent.MOUSE_PRESSED, 5, 5);
+        editor.mouse(MouseEvent.MOUSE_DRAGGED, 400, 400);
+        editor.mouse(MouseEvent.MOUSE_RELEASED, 400, 400);
+        assertTrue(editor.editor.state().selection().isEmpty());
+        editor.press(KeyEvent.VK_R, 'r');
+        editor.click(85, 85);
+        assertNotEquals(0, editor.editor.state().texture().argbInt32(0));
+    }
+
+    @Test
+    void testClampsDragsThatStartedOnTheTexture() {
+        var editor = new Editor(true);
+        editor.press(KeyEvent.VK_MINUS, '-', InputEvent.CTRL_DOWN_MASK);
+        editor.press(KeyEvent.VK_W, 'w');
+        editor.mouse(MouseEvent.MOUSE_PRESSED, 410, 410);
+        editor.mouse(MouseEvent.MOUSE_DRAGGED, 795, 795);
+        editor.mouse(MouseEvent.MOUSE_RELEASED, 795, 795);
+        var box = (BoxSelection) editor.editor.state().selection().orElseThrow();
+        assertEquals(8, box.tl().x());
+        assertEquals(15, box.br().x());
+        assertEquals(15, box.br().y());
+    }
+
+    @Test
+    void testDamagedFramesMatchFullFrames() {
+        var damaged = new Editor(true);
+        var full = new Editor(false);
+        List<Editor> both = List.of(damaged, full);
+        both.forEach(Editor::render);
+        assertEquals(full.display, damaged.display);
+
+        both.forEach(e -> e.click(75, 75));
+        both.forEach(Editor::render);
+        assertEquals(full.display, damaged.display);
+
+        both.forEach(e -> e.press(KeyEvent.VK_F2, KeyEvent.CHAR_UNDEFINED));
+        both.forEach(e -> e.click(25, 775));
+        both.forEach(Editor::render);
+        assertEquals(full.display, damaged.display);
+
+        both.forEach(e -> e.press(KeyEvent.VK_W, 'w'));
+        both.forEach(e -> e.mouse(MouseEvent.MOUSE_PRESSED, 110, 120));
+        both.forEach(e -> e.mouse(MouseEvent.MOUSE_DRAGGED, 420, 700));
+        both.forEach(Editor::render);
+        assertEquals(full.display, damaged.display);
+        both.forEach(e -> e.mouse(MouseEvent.MOUSE_DRAGGED, 260, 330));
+        both.forEach(e -> e.mouse(MouseEvent.MOUSE_RELEASED, 260, 330));
+        both.forEach(Editor::render);
+        assertEquals(full.display, damaged.display);
+
+        both.forEach(e -> e.press(KeyEvent.VK_C, 'c'));
+        both.forEach(e -> e.click(600, 600));
+        both.forEach(Editor::render);
+        assertEquals(full.display, damaged.display);
+        both.forEach(e -> e.press(KeyEvent.VK_ESCAPE, KeyEvent.CHAR_UNDEFINED));
+        both.forEach(Editor::render);
+        assertEquals(full.display, damaged.display);
+    }
+
+    // an editor over the usual background, rendering either only what it damaged or everything every frame
+    private static class Editor {
+        private final Raster            display = RasterFactory.PACKED.create(SIZE, SIZE);
+        private final TextureEditor     editor  = new TextureEditor(display,
+                Clock.fixed(Instant.EPOCH, ZoneOffset.UTC), 16, 16, RasterFactory.PACKED);
+        private final CompositeRenderer renderer;
+
+        private Editor(boolean onlyDamaged) {
+            this.renderer = new CompositeRenderer(List.of(
+                    new Eraser(display),
+                    new Checkerboard(0.8f, 0.9f, display),
+                    editor), onlyDamaged ? editor.invalidation() : null);
+        }
+
+        private void render() {
+            renderer.render();
+        }
+
+        private void press(int keyCode, char c) {
+            press(keyCode, c, 0);
+        }
+
+        private void press(int keyCode, char c, int modifiers) {
+            editor.keyPressed(new KeyEvent(SOURCE, KeyEvent.KEY_PRESSED, 0, modifiers, keyCode, c,
+                    KeyEvent.KEY_LOCATION_STANDARD));
+        }
+
+        private void mouse(int id, int x, int y) {
+            var e = new MouseEvent(SOURCE, id, 0, 0, x, y, 1, false, MouseEvent.BUTTON1);
+            switch (id) {
+                case MouseEvent.MOUSE_PRESSED -> editor.mousePressed(e);
+                case MouseEvent.MOUSE_DRAGGED -> editor.mouseDragged(e);
+                case MouseEvent.MOUSE_RELEASED -> editor.mouseReleased(e);
+                default -> throw new IllegalArgumentException(String.valueOf(id));
+            }
+        }
+
+        private void click(int x, int y) {
+            mouse(MouseEvent.MOUSE_PRESSED, x, y);
+            mouse(MouseEvent.MOUSE_RELEASED, x, y);
+        }
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,54 @@
+package scenes.textureeditor;
+
+import harness.Test;
+import rendering.BlendMode;
+import rendering.PackedRaster;
+import rendering.RasterFactory;
+import rendering.RasterPainter;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class ViewportTest {
+    @Test
+    void testFitsTextureByDefault() {
+        var texture = PackedRaster.ofArgb(16, 16, (i, _, _) -> 0xff000000 | i);
+        var display = RasterFactory.PACKED.create(100, 100);
+        var expected = RasterFactory.PACKED.create(100, 100);
+        new Viewport(100, 100).render(new RasterPainter(display), texture);
+        new RasterPainter(expected).drawImg(0, 0, texture.scale(100, 100), BlendMode.OVER_PRE);
+        assertEquals(expected, display);
+    }
+
+    @Test
+    void testZoomKeepsCursorTexel() {
+        var viewport = new Viewport(100, 100);
+        assertEquals(5, viewport.texelX(37, 16));
+        viewport.zoomAt(37, 60, 4);
+        assertEquals(5, viewport.texelX(37, 16));
+        assertEquals(9, viewport.texelY(60, 16));
+        viewport.zoomAt(37, 60, 1000);
+        assertEquals(Viewport.MAX_ZOOM, viewport.zoom());
+        viewport.reset();
+        assertEquals(0, viewport.displayX(0, 16));
+    }
+
+    @Test
+    void testRendersOnlyVisibleTexels() {
+        var texture = PackedRaster.ofArgb(4, 4, (i, _, _) -> 0xff000000 | i);
+        var display = RasterFactory.PACKED.create(8, 8);
+        var viewport = new Viewport(8, 8);
+        // each texel is 4 display pixels wide; scrolled so only the right half of texel 3 shows
+        viewport.zoomAt(0, 0, 2);
+        viewport.pan(14, 0);
+        viewport.render(new RasterPainter(display), texture);
+        assertEquals(0xff000003, display.argbInt32(0));
+        assertEquals(0xff000003, display.argbInt32(1));
+        assertEquals(0, display.argbInt32(2));
+        assertEquals(2, viewport.displayX(4, 4));
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
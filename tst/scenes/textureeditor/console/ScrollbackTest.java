@@ -0,0 +1,43 @@
+package scenes.textureeditor.console;
+
+import harness.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class ScrollbackTest {
+    @Test
+    void testEvictsOldestEntries() {
+        var scrollback = new Scrollback<String>(2);
+        scrollback.add(List.of("a1", "a2"));
+        scrollback.add(List.of("b1"));
+        scrollback.add(List.of("c1", "c2", "c3"));
+        assertEquals(2, scrollback.entries());
+        assertEquals(4, scrollback.lines());
+        assertEquals(List.of("c3", "c2", "c1", "b1"), newestFirst(scrollback, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testStopsWhenVisitorDeclines() {
+        var scrollback = new Scrollback<String>(4);
+        scrollback.add(List.of("a1", "a2"));
+        scrollback.add(List.of("b1", "b2"));
+        assertEquals(List.of("b2", "b1", "a2"), newestFirst(scrollback, 3));
+    }
+
+    private static List<String> newestFirst(Scrollback<String> scrollback, int limit) {
+        var res = new ArrayList<String>();
+        scrollback.forEachNewestFirst(line -> {
+            res.add(line);
+            return res.size() < limit;
+        });
+        return res;
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
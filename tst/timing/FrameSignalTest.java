@@ -0,0 +1,41 @@
+package timing;
+
+import harness.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static harness.Assertions.assertFalse;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class FrameSignalTest {
+    @Test
+    void testSignalBeforeAwaitIsNotLost() throws InterruptedException {
+        var cut = new FrameSignal();
+        cut.signal();
+        assertTrue(cut.await(1, TimeUnit.SECONDS));
+        // consumed
+        assertFalse(cut.await(1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testSignalWakesWaiter() throws InterruptedException {
+        var cut = new FrameSignal();
+        var signaler = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            cut.signal();
+        });
+        long start = System.nanoTime();
+        assertTrue(cut.await(10, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        signaler.join();
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,66 @@
+package timing;
+
+import harness.Test;
+
+import java.util.ArrayList;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class GameLoopExecutorTest {
+    private static final long MS = 1_000_000;
+
+    @Test
+    void testCatchesUpInFixedSteps() {
+        var dts = new ArrayList<Double>();
+        var alphas = new ArrayList<Double>();
+        var cut = GameLoopExecutor.builder()
+                .updateHertz(100)
+                .update(dts::add)
+                .render(alphas::add)
+                .build();
+        cut.frame(0);
+        cut.frame(25 * MS);  // 2 steps, half way into the third
+        cut.frame(30 * MS);  // 1 step, lands exactly on a step
+        assertEquals(3L, cut.updates());
+        assertEquals(3L, cut.renders());
+        for (var dt : dts) {
+            assertEquals(0.01, dt);
+        }
+        assertEquals(0., alphas.get(0));
+        assertEquals(0.5, alphas.get(1));
+        assertEquals(0., alphas.get(2));
+    }
+
+    @Test
+    void testNegativeNanoTime() {
+        var cut = GameLoopExecutor.builder()
+                .updateHertz(100)
+                .update(_ -> {})
+                .render(_ -> {})
+                .build();
+        cut.frame(-1_000 * MS);
+        cut.frame(-975 * MS);
+        assertEquals(2L, cut.updates());
+    }
+
+    @Test
+    void testCapsCatchUpSteps() {
+        var cut = GameLoopExecutor.builder()
+                .updateHertz(100)
+                .maxCatchUpSteps(4)
+                .update(_ -> {})
+                .render(_ -> {})
+                .build();
+        cut.frame(0);
+        cut.frame(1_005 * MS);  // 100 steps behind
+        assertEquals(4L, cut.updates());
+        assertEquals(96L, cut.droppedSteps());
+        cut.frame(1_010 * MS);  // the half step left over is kept, only whole steps are dropped
+        assertEquals(5L, cut.updates());
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
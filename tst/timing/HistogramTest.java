@@ -0,0 +1,48 @@
+package timing;
+
+import harness.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class HistogramTest {
+    @Test
+    void testBucketsAreContiguous() {
+        for (int i = 1; i < 60 * 16; ++i) {
+            assertEquals(i, Histogram.index(Histogram.highest(i - 1) + 1));
+            assertEquals(i, Histogram.index(Histogram.highest(i)));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.highest(Histogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        var random = new Random(1);
+        var values = new long[10_000];
+        var cut = new Histogram();
+        for (int i = 0; i < values.length; ++i) {
+            // roughly frame times: 16 ms give or take, with a long tail
+            values[i] = 16_000_000 + (long) (Math.abs(random.nextGaussian()) * 2_000_000)
+                    + (i % 100 == 0 ? 50_000_000 : 0);
+            cut.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (int percentile : new int[] {50, 95, 99}) {
+            long expected = values[(int) Math.ceil(percentile / 100. * values.length) - 1];
+            long actual = cut.percentile(percentile);
+            assertTrue(actual >= expected && actual - expected <= expected / 16);
+        }
+        assertEquals(values[values.length - 1], cut.snapshot().max());
+        assertEquals(10_000L, cut.snapshot().count());
+        cut.reset();
+        assertEquals(0L, cut.percentile(99));
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,68 @@
+package timing;
+
+import harness.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static harness.Assertions.assertEquals;
+import static harness.SuiteRunner.runThis;
+
+public class PeriodicExecutorTest {
+    private static final String STOP = "stop";
+
+    @Test
+    void testCountsSignaledAndIdleRuns() throws InterruptedException {
+        var signal = new FrameSignal();
+        int[] runs = {0};
+        var cut = PeriodicExecutor.builder()
+                .hertz(1000)
+                .clock(Clock.systemUTC())
+                // odd runs signal, so the run after each of them is active and the one after that idles out
+                .runnable(() -> {
+                    if (++runs[0] % 2 == 1) {
+                        signal.signal();
+                    }
+                    if (runs[0] == 10) {
+                        throw new IllegalStateException(STOP);
+                    }
+                })
+                .onDemand(signal, Duration.ofMillis(1))
+                .build();
+        try {
+            cut.execute();
+        } catch (IllegalStateException e) {
+            assertEquals(STOP, e.getMessage());
+        }
+        assertEquals(10, runs[0]);
+        // runs 2, 4, 6, 8 and 10; the first run is neither
+        assertEquals(5L, cut.activeRuns());
+        assertEquals(4L, cut.idleRuns());
+    }
+
+    @Test
+    void testCountsNothingWhenNotOnDemand() throws InterruptedException {
+        int[] runs = {0};
+        var cut = PeriodicExecutor.builder()
+                .hertz(1000)
+                .clock(Clock.systemUTC())
+                .runnable(() -> {
+                    if (++runs[0] == 3) {
+                        throw new IllegalStateException(STOP);
+                    }
+                })
+                .pacer(Pacer.SLEEP)
+                .build();
+        try {
+            cut.execute();
+        } catch (IllegalStateException e) {
+            assertEquals(STOP, e.getMessage());
+        }
+        assertEquals(0L, cut.activeRuns());
+        assertEquals(0L, cut.idleRuns());
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,40 @@
+package timing;
+
+import harness.Test;
+
+import java.util.Random;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class RollingStatsTest {
+    @Test
+    void testMatchesTwoPassOverWindow() {
+        var random = new Random(1);
+        var samples = new long[1_000];
+        var cut = new RollingStats(100);
+        for (int i = 0; i < samples.length; ++i) {
+            samples[i] = 16_666_666 + random.nextInt(2_000_000) - 1_000_000;
+            cut.add(samples[i]);
+            int from = Math.max(0, i - 99);
+            double mean = 0;
+            for (int j = from; j <= i; ++j) {
+                mean += samples[j];
+            }
+            mean /= i - from + 1;
+            double variance = 0;
+            for (int j = from; j <= i; ++j) {
+                variance += (samples[j] - mean) * (samples[j] - mean);
+            }
+            variance /= i - from + 1;
+            assertEquals(i - from + 1, cut.size());
+            assertTrue(Math.abs(mean - cut.mean()) < 1e-3);
+            assertTrue(Math.abs(Math.sqrt(variance) - cut.stdev()) < 1e-3);
+        }
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
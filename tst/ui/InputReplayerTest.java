@@ -0,0 +1,122 @@
+package ui;
+
+import harness.Test;
+
+import java.awt.Component;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class InputReplayerTest {
+    private static final Component SOURCE = new Component() {};
+
+    @Test
+    void testRoundTrip() throws Exception {
+        var recorded = new ArrayList<String>();
+        var out = new ByteArrayOutputStream();
+        var recorder = new InputRecorder(new Listener(recorded), out);
+        recorder.keyPressed(new KeyEvent(SOURCE, KeyEvent.KEY_PRESSED, 0, InputEvent.SHIFT_DOWN_MASK,
+                KeyEvent.VK_A, 'A', KeyEvent.KEY_LOCATION_STANDARD));
+        recorder.mousePressed(new MouseEvent(SOURCE, MouseEvent.MOUSE_PRESSED, 0, 0, 10, 20, 1, false,
+                MouseEvent.BUTTON1));
+        recorder.mouseDragged(new MouseEvent(SOURCE, MouseEvent.MOUSE_DRAGGED, 0, InputEvent.BUTTON1_DOWN_MASK,
+                11, 22, 0, false, MouseEvent.NOBUTTON));
+        recorder.mouseReleased(new MouseEvent(SOURCE, MouseEvent.MOUSE_RELEASED, 0, 0, 12, 24, 1, false,
+                MouseEvent.BUTTON1));
+        recorder.mouseWheelMoved(new MouseWheelEvent(SOURCE, MouseEvent.MOUSE_WHEEL, 0, 0, 5, 6, 5, 6, 0, false,
+                MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, 0, -0.25));
+        recorder.mouseEntered(new MouseEvent(SOURCE, MouseEvent.MOUSE_ENTERED, 0, 0, 0, 0, 0, false, 0));
+
+        var replayer = InputReplayer.read(new ByteArrayInputStream(out.toByteArray())).getSuccess();
+        assertEquals(5, replayer.size());
+        var replayed = new ArrayList<String>();
+        int[] frames = {0};
+        replayer.replay(new Listener(replayed), false, () -> ++frames[0]);
+        assertEquals(5, frames[0]);
+        // entered/exited reach the listener but aren't recorded
+        assertEquals(List.of("entered"), recorded.subList(5, 6));
+        assertEquals(recorded.subList(0, 5), replayed);
+    }
+
+    @Test
+    void testReplaysCapsLock() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var recorder = new InputRecorder(new Listener(new ArrayList<>()), out);
+        recorder.keyPressed(new ReplayedKeyEvent(SOURCE, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_A, 'A',
+                KeyEvent.KEY_LOCATION_STANDARD, true));
+        recorder.keyPressed(new ReplayedKeyEvent(SOURCE, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_A, 'a',
+                KeyEvent.KEY_LOCATION_STANDARD, false));
+        var replayed = new ArrayList<String>();
+        InputReplayer.read(new ByteArrayInputStream(out.toByteArray())).getSuccess()
+                .replay(new Listener(replayed), false, () -> {});
+        assertEquals(List.of("key UPPER_A 65 A 0", "key LOWER_A 65 a 0"), replayed);
+    }
+
+    @Test
+    void testRejectsOtherFiles() {
+        assertTrue(InputReplayer.read(new ByteArrayInputStream("ARGB.17E1BD52E4D7A8B5".getBytes())).isFailure());
+    }
+
+    private static class Listener extends MouseAdapter implements KeyListener {
+        private final List<String> events;
+
+        private Listener(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void keyTyped(KeyEvent e) {
+        }
+
+        @Override
+        public void keyPressed(KeyEvent e) {
+            events.add("key %s %d %c %d".formatted(KeyAction.fromAwt(e).reified(), e.getKeyCode(), e.getKeyChar(),
+                    e.getModifiersEx()));
+        }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+            events.add("released " + e.getKeyCode());
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            events.add("pressed %d %d %d %d".formatted(e.getX(), e.getY(), e.getButton(), e.getClickCount()));
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            events.add("released %d %d %d".formatted(e.getX(), e.getY(), e.getButton()));
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            events.add("dragged %d %d %d".formatted(e.getX(), e.getY(), e.getModifiersEx()));
+        }
+
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            events.add("wheel %d %d %.2f".formatted(e.getX(), e.getY(), e.getPreciseWheelRotation()));
+        }
+
+        @Override
+        public void mouseEntered(MouseEvent e) {
+            events.add("entered");
+        }
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}
@@ -0,0 +1,58 @@
+package ui;
+
+import harness.Test;
+import rendering.BlendMode;
+import rendering.Color;
+import rendering.RasterFactory;
+import rendering.RasterPainter;
+
+import static harness.Assertions.assertEquals;
+import static harness.Assertions.assertTrue;
+import static harness.SuiteRunner.runThis;
+
+public class LayerTest {
+    @Test
+    void testRedrawsOnlyWhenInvalidated() {
+        var display = RasterFactory.PACKED.create(8, 8);
+        int[] draws = {0};
+        var layer = Layer.builder()
+                .target(new RasterPainter(display))
+                .at(2, 3)
+                .raster(RasterFactory.PACKED.create(4, 4))
+                .draw(() -> ++draws[0])
+                .build();
+        assertTrue(layer.isDirty());
+        layer.render();
+        layer.render();
+        assertEquals(1, draws[0]);
+        layer.invalidate();
+        layer.render();
+        assertEquals(2, draws[0]);
+        assertEquals(2L, layer.redraws());
+    }
+
+    @Test
+    void testCompositesAtOffset() {
+        var display = RasterFactory.PACKED.create(8, 8, Color.NamedColor.BLACK);
+        int red = Color.NamedColor.RED.argbInt32();
+        var layer = Layer.builder()
+                .target(new RasterPainter(display))
+                .at(2, 3)
+                .raster(RasterFactory.PACKED.create(4, 4))
+                .blendMode(BlendMode.NORMAL)
+                .draw(() -> {})
+                .build();
+        layer.raster().argbInt32(0, red);
+        // redrawing starts from a transparent layer
+        layer.render();
+        assertEquals(Color.NamedColor.NONE.argbInt32(), display.argbInt32(3 * 8 + 2));
+        layer.painter().drawPoint(1, 1, Color.NamedColor.RED, BlendMode.NORMAL);
+        layer.render();
+        assertEquals(red, display.argbInt32(4 * 8 + 3));
+        assertEquals(Color.NamedColor.BLACK.argbInt32(), display.argbInt32(4 * 8 + 1));
+    }
+
+    public static void main(String[] args) {
+        runThis();
+    }
+}